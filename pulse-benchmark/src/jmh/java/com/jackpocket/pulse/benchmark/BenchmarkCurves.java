@@ -0,0 +1,26 @@
+package com.jackpocket.pulse.benchmark;
+
+import com.jackpocket.pulse.InterpolatorTable;
+import com.jackpocket.pulse.PulseCurve;
+
+/**
+ * Platform-independent equivalents of the PulseController's default interpolators.
+ */
+final class BenchmarkCurves {
+
+    static final PulseCurve ACCELERATE = new InterpolatorTable(new PulseCurve() {
+        @Override
+        public float getInterpolation(float input) {
+            return input * input;
+        }
+    });
+
+    static final PulseCurve LINEAR = new InterpolatorTable(new PulseCurve() {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    });
+
+    private BenchmarkCurves() { }
+}
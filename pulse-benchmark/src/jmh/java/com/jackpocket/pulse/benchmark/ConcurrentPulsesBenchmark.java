@@ -0,0 +1,58 @@
+package com.jackpocket.pulse.benchmark;
+
+import com.jackpocket.pulse.PulseSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single frame update of one target holding a steady number
+ * of concurrent pulses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConcurrentPulsesBenchmark {
+
+    static final long FRAME_INTERVAL_MS = 16;
+
+    @Param({ "1", "10", "100", "1000" })
+    public int pulses;
+
+    private PulseSimulation simulation;
+    private long frameTimeMs = 0;
+
+    @Setup
+    public void setup() {
+        // Spawning on every frame with a life span of N frames keeps N pulses alive
+        this.simulation = new PulseSimulation()
+                .setAlphaCurve(BenchmarkCurves.ACCELERATE)
+                .setScaleCurve(BenchmarkCurves.LINEAR)
+                .setDurationMs(Long.MAX_VALUE / 2)
+                .setLifeSpanMs(pulses * FRAME_INTERVAL_MS)
+                .setRespawnRateMs(FRAME_INTERVAL_MS - 1)
+                .start(frameTimeMs);
+
+        for (int i = 0; i <= pulses; i++) {
+            tick();
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        this.frameTimeMs += FRAME_INTERVAL_MS;
+
+        simulation.spawnIfAvailable(frameTimeMs);
+        simulation.advance(frameTimeMs);
+
+        return simulation.getBuffer().size();
+    }
+}
@@ -0,0 +1,82 @@
+package com.jackpocket.pulse.benchmark;
+
+import com.jackpocket.pulse.PulseBudget;
+import com.jackpocket.pulse.PulseSimulation;
+import com.jackpocket.pulse.PulseSimulationGroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single frame update across a number of targets of the {@link PulseSimulationGroup}
+ * driving a MultiPulseController, each using the default pulse timings with staggered start
+ * times. Targets optionally share a live pulse budget too small for all of their pulses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConcurrentTargetsBenchmark {
+
+    static final long FRAME_INTERVAL_MS = 16;
+    static final long LIFE_SPAN_MS = 900;
+    static final long RESPAWN_RATE_MS = 300;
+
+    static class Target implements PulseSimulationGroup.Member {
+
+        final PulseSimulation simulation = new PulseSimulation();
+
+        @Override
+        public PulseSimulation getSimulation() {
+            return simulation;
+        }
+    }
+
+    @Param({ "1", "10", "100", "1000" })
+    public int targets;
+
+    @Param({ "false", "true" })
+    public boolean budgeted;
+
+    private final PulseSimulationGroup<Target> group = new PulseSimulationGroup<Target>();
+    private long frameTimeMs = 0;
+
+    @Setup
+    public void setup() {
+        PulseBudget budget = new PulseBudget(budgeted ? targets : PulseBudget.UNLIMITED);
+
+        for (int i = 0; i < targets; i++) {
+            Target target = new Target();
+            target.simulation
+                    .setAlphaCurve(BenchmarkCurves.ACCELERATE)
+                    .setScaleCurve(BenchmarkCurves.LINEAR)
+                    .setDurationMs(Long.MAX_VALUE / 2)
+                    .setLifeSpanMs(LIFE_SPAN_MS)
+                    .setRespawnRateMs(RESPAWN_RATE_MS)
+                    .setSharedBudget(budget)
+                    .start(i % RESPAWN_RATE_MS);
+
+            group.add(target);
+        }
+
+        for (long warmupMs = 0; warmupMs < LIFE_SPAN_MS * 2; warmupMs += FRAME_INTERVAL_MS) {
+            tick();
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        this.frameTimeMs += FRAME_INTERVAL_MS;
+
+        group.update(frameTimeMs);
+
+        return group.getLivePulses();
+    }
+}
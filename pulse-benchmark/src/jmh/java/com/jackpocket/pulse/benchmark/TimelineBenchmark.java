@@ -0,0 +1,62 @@
+package com.jackpocket.pulse.benchmark;
+
+import com.jackpocket.pulse.PulseSimulation;
+import com.jackpocket.pulse.PulseTimeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single frame update of one target playing an infinitely looping
+ * timeline of staggered rings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimelineBenchmark {
+
+    static final long FRAME_INTERVAL_MS = 16;
+
+    @Param({ "1", "10", "100" })
+    public int rings;
+
+    private PulseSimulation simulation;
+    private long frameTimeMs = 0;
+
+    @Setup
+    public void setup() {
+        PulseTimeline timeline = new PulseTimeline.Builder()
+                .setLifeSpanMs(rings * FRAME_INTERVAL_MS)
+                .addBurst(0, rings, FRAME_INTERVAL_MS, 0f, 0)
+                .setLoopCount(PulseTimeline.LOOP_INFINITE)
+                .build();
+
+        this.simulation = new PulseSimulation()
+                .setAlphaCurve(BenchmarkCurves.ACCELERATE)
+                .setScaleCurve(BenchmarkCurves.LINEAR)
+                .setTimeline(timeline)
+                .start(frameTimeMs);
+
+        for (int i = 0; i <= rings; i++) {
+            tick();
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        this.frameTimeMs += FRAME_INTERVAL_MS;
+
+        simulation.spawnIfAvailable(frameTimeMs);
+        simulation.advance(frameTimeMs);
+
+        return simulation.getBuffer().size();
+    }
+}
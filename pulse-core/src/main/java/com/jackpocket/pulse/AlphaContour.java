@@ -0,0 +1,226 @@
+package com.jackpocket.pulse;
+
+/**
+ * Traces the outer contour of the opaque region of an ARGB pixel buffer with marching
+ * squares, then simplifies it with the Ramer-Douglas-Peucker algorithm.
+ * <br><br>
+ * Contour points lie on pixel corners, in the buffer's coordinates. Only the region
+ * containing the first opaque pixel (in row-major order) is traced.
+ */
+public class AlphaContour {
+
+    public static final int DEFAULT_ALPHA_THRESHOLD = 128;
+    public static final float DEFAULT_TOLERANCE_PX = 1.5f;
+
+    private AlphaContour() { }
+
+    /**
+     * @param pixels the ARGB pixels, row-major
+     * @param alphaThreshold the minimum alpha of a pixel considered opaque
+     * @param tolerancePx the maximum distance a simplified contour may deviate from the traced one
+     * @return the simplified contour as alternating x and y coordinates, or null if no pixel is opaque
+     */
+    public static float[] trace(int[] pixels, int width, int height, int alphaThreshold, float tolerancePx) {
+        int start = findFirstOpaquePixel(pixels, width, height, alphaThreshold);
+
+        if (start < 0)
+            return null;
+
+        int[] contour = traceContour(pixels, width, height, alphaThreshold, start % width, start / width);
+
+        return simplify(contour, contour.length / 2, tolerancePx);
+    }
+
+    private static int findFirstOpaquePixel(int[] pixels, int width, int height, int alphaThreshold) {
+        for (int i = 0; i < width * height; i++) {
+            if (alphaThreshold <= pixels[i] >>> 24)
+                return i;
+        }
+
+        return -1;
+    }
+
+    private static boolean isOpaque(int[] pixels, int width, int height, int alphaThreshold, int x, int y) {
+        return 0 <= x && x < width
+                && 0 <= y && y < height
+                && alphaThreshold <= pixels[(y * width) + x] >>> 24;
+    }
+
+    /**
+     * Walk the pixel corners around the region, starting at the top-left corner of its first pixel.
+     *
+     * @return the traced corners as alternating x and y coordinates
+     */
+    private static int[] traceContour(int[] pixels, int width, int height, int alphaThreshold, int startX, int startY) {
+        int[] points = new int[64];
+        int count = 0;
+
+        int maxSteps = 4 * (width + 1) * (height + 1);
+        int x = startX;
+        int y = startY;
+        int stepX = 0;
+        int stepY = 0;
+
+        do {
+            int previousX = stepX;
+            int previousY = stepY;
+            int state = 0;
+
+            if (isOpaque(pixels, width, height, alphaThreshold, x - 1, y - 1))
+                state |= 1;
+
+            if (isOpaque(pixels, width, height, alphaThreshold, x, y - 1))
+                state |= 2;
+
+            if (isOpaque(pixels, width, height, alphaThreshold, x - 1, y))
+                state |= 4;
+
+            if (isOpaque(pixels, width, height, alphaThreshold, x, y))
+                state |= 8;
+
+            switch (state) {
+                case 1: case 5: case 13:
+                    stepX = 0;
+                    stepY = -1;
+                    break;
+                case 8: case 10: case 11:
+                    stepX = 0;
+                    stepY = 1;
+                    break;
+                case 4: case 12: case 14:
+                    stepX = -1;
+                    stepY = 0;
+                    break;
+                case 2: case 3: case 7:
+                    stepX = 1;
+                    stepY = 0;
+                    break;
+                case 6:
+                    // Saddles continue around the region being traced
+                    stepX = previousY == -1 ? -1 : 1;
+                    stepY = 0;
+                    break;
+                case 9:
+                    stepX = 0;
+                    stepY = previousX == 1 ? -1 : 1;
+                    break;
+                default:
+                    stepX = 0;
+                    stepY = 0;
+                    break;
+            }
+
+            // Only corners where the direction changes are kept
+            if (stepX != previousX || stepY != previousY) {
+                if (points.length < count + 2) {
+                    int[] grown = new int[points.length * 2];
+
+                    System.arraycopy(points, 0, grown, 0, count);
+
+                    points = grown;
+                }
+
+                points[count++] = x;
+                points[count++] = y;
+            }
+
+            x += stepX;
+            y += stepY;
+        }
+        while ((x != startX || y != startY) && (stepX != 0 || stepY != 0) && 0 < --maxSteps);
+
+        int[] contour = new int[count];
+
+        System.arraycopy(points, 0, contour, 0, count);
+
+        return contour;
+    }
+
+    /**
+     * Ramer-Douglas-Peucker simplification of the open chain of points, using an
+     * explicit stack so that long contours cannot overflow the call stack.
+     */
+    private static float[] simplify(int[] points, int count, float tolerancePx) {
+        if (count < 3) {
+            float[] result = new float[count * 2];
+
+            for (int i = 0; i < count * 2; i++) {
+                result[i] = points[i];
+            }
+
+            return result;
+        }
+
+        boolean[] kept = new boolean[count];
+        int[] stack = new int[count * 2];
+        int stackSize = 0;
+        int keptCount = 2;
+
+        kept[0] = true;
+        kept[count - 1] = true;
+
+        stack[stackSize++] = 0;
+        stack[stackSize++] = count - 1;
+
+        while (0 < stackSize) {
+            int last = stack[--stackSize];
+            int first = stack[--stackSize];
+
+            int farthest = -1;
+            float farthestDistance = tolerancePx;
+
+            for (int i = first + 1; i < last; i++) {
+                float distance = getDistanceToSegment(points, i, first, last);
+
+                if (farthestDistance < distance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+
+            if (farthest < 0)
+                continue;
+
+            kept[farthest] = true;
+            keptCount++;
+
+            stack[stackSize++] = first;
+            stack[stackSize++] = farthest;
+            stack[stackSize++] = farthest;
+            stack[stackSize++] = last;
+        }
+
+        float[] result = new float[keptCount * 2];
+        int position = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (!kept[i])
+                continue;
+
+            result[position++] = points[i * 2];
+            result[position++] = points[(i * 2) + 1];
+        }
+
+        return result;
+    }
+
+    private static float getDistanceToSegment(int[] points, int point, int first, int last) {
+        float px = points[point * 2];
+        float py = points[(point * 2) + 1];
+        float ax = points[first * 2];
+        float ay = points[(first * 2) + 1];
+        float bx = points[last * 2];
+        float by = points[(last * 2) + 1];
+
+        float dx = bx - ax;
+        float dy = by - ay;
+        float lengthSquared = (dx * dx) + (dy * dy);
+
+        if (lengthSquared == 0)
+            return (float) Math.hypot(px - ax, py - ay);
+
+        float t = Math.max(0, Math.min(1, (((px - ax) * dx) + ((py - ay) * dy)) / lengthSquared));
+
+        return (float) Math.hypot(px - (ax + (t * dx)), py - (ay + (t * dy)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.jackpocket.pulse;
+
+/**
+ * A {@link PulseCurve} baked into a fixed-resolution lookup table, evaluated
+ * by linearly interpolating between the two nearest samples.
+ * <br><br>
+ * Inputs are clamped to [0, 1], the range pulse progress is evaluated over.
+ */
+public class InterpolatorTable implements PulseCurve {
+
+    public static final int DEFAULT_RESOLUTION = 256;
+
+    private final PulseCurve source;
+    private final float[] values;
+    private final int resolution;
+
+    public InterpolatorTable(PulseCurve source) {
+        this(source, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * @param source the curve to sample
+     * @param resolution the number of segments to divide [0, 1] into; must be at least 1
+     */
+    public InterpolatorTable(PulseCurve source, int resolution) {
+        if (resolution < 1)
+            throw new IllegalArgumentException("InterpolatorTable resolution must be at least 1");
+
+        this.source = source;
+        this.resolution = resolution;
+        this.values = new float[resolution + 1];
+
+        for (int i = 0; i <= resolution; i++) {
+            values[i] = source.getInterpolation(i / (float) resolution);
+        }
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0f)
+            return values[0];
+
+        if (1f <= input)
+            return values[resolution];
+
+        float position = input * resolution;
+        int index = (int) position;
+        float fraction = position - index;
+
+        return values[index] + ((values[index + 1] - values[index]) * fraction);
+    }
+
+    /**
+     * Compare the table against its source curve at the supplied
+     * number of evenly-spaced inputs over [0, 1].
+     *
+     * @return the largest absolute difference found
+     */
+    public float getMaxError(int samples) {
+        float maxError = 0f;
+
+        for (int i = 0; i <= samples; i++) {
+            float input = i / (float) samples;
+            float error = Math.abs(source.getInterpolation(input) - getInterpolation(input));
+
+            maxError = Math.max(maxError, error);
+        }
+
+        return maxError;
+    }
+
+    public PulseCurve getSource() {
+        return source;
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+}
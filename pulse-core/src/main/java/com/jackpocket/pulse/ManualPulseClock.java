@@ -0,0 +1,38 @@
+package com.jackpocket.pulse;
+
+/**
+ * A {@link PulseClock} that only moves when told to, for stepping pulse
+ * sequences through virtual time deterministically.
+ */
+public class ManualPulseClock implements PulseClock {
+
+    private long nowMs;
+
+    public ManualPulseClock() {
+        this(0);
+    }
+
+    public ManualPulseClock(long startTimeMs) {
+        this.nowMs = startTimeMs;
+    }
+
+    @Override
+    public synchronized long nowMs() {
+        return nowMs;
+    }
+
+    public synchronized ManualPulseClock setNowMs(long nowMs) {
+        this.nowMs = nowMs;
+
+        return this;
+    }
+
+    /**
+     * @return the new time
+     */
+    public synchronized long advance(long deltaMs) {
+        this.nowMs += deltaMs;
+
+        return nowMs;
+    }
+}
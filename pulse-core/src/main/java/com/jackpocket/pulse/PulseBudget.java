@@ -0,0 +1,83 @@
+package com.jackpocket.pulse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A limit on the number of pulses alive at once across every {@link PulseSimulation}
+ * sharing it. By default, simulations share the process-wide {@link #getGlobal()} budget,
+ * which is unlimited until configured otherwise.
+ * <br><br>
+ * Each live pulse holds one unit of its simulation's budget until it expires, or the
+ * simulation is started again or stopped. Simulations that are not being advanced (e.g.
+ * those of paused controllers) release their units via {@link PulseSimulation#releaseHeldBudget()}.
+ * Instances are thread-safe.
+ */
+public class PulseBudget {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static PulseBudget global;
+
+    public static synchronized PulseBudget getGlobal() {
+        if (global == null)
+            global = new PulseBudget(UNLIMITED);
+
+        return global;
+    }
+
+    private final AtomicInteger livePulses = new AtomicInteger();
+    private volatile int maxLivePulses;
+
+    public PulseBudget(int maxLivePulses) {
+        this.maxLivePulses = maxLivePulses;
+    }
+
+    /**
+     * @return true if a unit was acquired, or false if the budget is exhausted
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = livePulses.get();
+
+            if (maxLivePulses <= current)
+                return false;
+
+            if (livePulses.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    /**
+     * Acquire units regardless of the limit, e.g. for pulses moved from another budget.
+     */
+    public void acquire(int count) {
+        if (count < 1)
+            return;
+
+        livePulses.addAndGet(count);
+    }
+
+    public void release(int count) {
+        if (count < 1)
+            return;
+
+        livePulses.addAndGet(-count);
+    }
+
+    /**
+     * Lowering the limit below the number of live pulses only affects future spawns.
+     */
+    public PulseBudget setMaxLivePulses(int maxLivePulses) {
+        this.maxLivePulses = maxLivePulses;
+
+        return this;
+    }
+
+    public int getMaxLivePulses() {
+        return maxLivePulses;
+    }
+
+    public int getLivePulses() {
+        return livePulses.get();
+    }
+}
@@ -0,0 +1,247 @@
+package com.jackpocket.pulse;
+
+/**
+ * A fixed-capacity ring buffer holding the state of every live pulse in
+ * parallel primitive arrays.
+ * <br><br>
+ * Spawning a pulse bumps the head and expiring one bumps the tail, so neither
+ * operation allocates. Pulses expiring before older ones (e.g. timeline rings with
+ * shorter life spans) are compacted out from behind them, preserving spawn order,
+ * so that only live pulses occupy the buffer. When the buffer is full the oldest
+ * pulse is dropped to make room for a new one.
+ * <br><br>
+ * Slots are addressed by their physical index, obtained via {@link #getSlot(int)}
+ * for positions ranging from 0 (oldest) to {@link #size()} - 1 (newest).
+ */
+public class PulseBuffer {
+
+    public static final int DEFAULT_CAPACITY = 8;
+
+    private long[] createdAt;
+    private long[] lifeSpans;
+    private float[] scales;
+    private int[] alphas;
+    private float[] maxScales;
+    private int[] maxAlphas;
+    private int[] colors;
+
+    private int head = 0;
+    private int tail = 0;
+    private int size = 0;
+
+    public PulseBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PulseBuffer(int capacity) {
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.createdAt = new long[capacity];
+        this.lifeSpans = new long[capacity];
+        this.scales = new float[capacity];
+        this.alphas = new int[capacity];
+        this.maxScales = new float[capacity];
+        this.maxAlphas = new int[capacity];
+        this.colors = new int[capacity];
+    }
+
+    /**
+     * Grow the buffer to hold at least the supplied number of pulses. Existing
+     * pulses are discarded if a reallocation is required, so this should only
+     * be called between pulse sequences.
+     */
+    public PulseBuffer ensureCapacity(int capacity) {
+        if (capacity <= capacity())
+            return this;
+
+        allocate(capacity);
+        clear();
+
+        return this;
+    }
+
+    /**
+     * Add a new pulse at the head, dropping the oldest pulse if the buffer is full.
+     *
+     * @return the slot of the spawned pulse
+     */
+    public int spawn(long createdAtMs, long lifeSpanMs) {
+        return spawn(createdAtMs, lifeSpanMs, 1f, PulseSimulation.MAX_ALPHA, PulseTimeline.COLOR_INHERIT);
+    }
+
+    /**
+     * Add a new pulse at the head with its own maximum scale, starting alpha and color,
+     * dropping the oldest pulse if the buffer is full.
+     *
+     * @return the slot of the spawned pulse
+     */
+    public int spawn(long createdAtMs, long lifeSpanMs, float maxScale, int maxAlpha, int color) {
+        if (isFull())
+            dropOldest();
+
+        int slot = head;
+
+        this.createdAt[slot] = createdAtMs;
+        this.lifeSpans[slot] = lifeSpanMs;
+        this.scales[slot] = 1f;
+        this.alphas[slot] = 0;
+        this.maxScales[slot] = maxScale;
+        this.maxAlphas[slot] = maxAlpha;
+        this.colors[slot] = color;
+
+        this.head = (head + 1) % capacity();
+        this.size++;
+
+        return slot;
+    }
+
+    /**
+     * Bump the tail past every leading pulse whose life span has elapsed, then
+     * compact out any expired pulses remaining behind longer-lived ones.
+     *
+     * @return the number of expired pulses
+     */
+    public int expire(long frameTimeMs) {
+        int expired = 0;
+
+        while (0 < size && isExpired(tail, frameTimeMs)) {
+            dropOldest();
+
+            expired++;
+        }
+
+        int kept = 0;
+
+        for (int i = 0; i < size; i++) {
+            int slot = getSlot(i);
+
+            if (isExpired(slot, frameTimeMs))
+                continue;
+
+            if (kept != i) {
+                move(slot, getSlot(kept));
+            }
+
+            kept++;
+        }
+
+        expired += size - kept;
+
+        this.size = kept;
+        this.head = (tail + kept) % capacity();
+
+        return expired;
+    }
+
+    private boolean isExpired(int slot, long frameTimeMs) {
+        return lifeSpans[slot] <= frameTimeMs - createdAt[slot];
+    }
+
+    private void move(int fromSlot, int toSlot) {
+        this.createdAt[toSlot] = createdAt[fromSlot];
+        this.lifeSpans[toSlot] = lifeSpans[fromSlot];
+        this.scales[toSlot] = scales[fromSlot];
+        this.alphas[toSlot] = alphas[fromSlot];
+        this.maxScales[toSlot] = maxScales[fromSlot];
+        this.maxAlphas[toSlot] = maxAlphas[fromSlot];
+        this.colors[toSlot] = colors[fromSlot];
+    }
+
+    public void dropOldest() {
+        if (size == 0)
+            return;
+
+        this.tail = (tail + 1) % capacity();
+        this.size--;
+    }
+
+    /**
+     * Move the creation time of every live pulse forward, e.g. to exclude
+     * the time spent paused from their life spans.
+     */
+    public void shift(long deltaMs) {
+        for (int i = 0; i < size; i++) {
+            this.createdAt[getSlot(i)] += deltaMs;
+        }
+    }
+
+    public void clear() {
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+    }
+
+    /**
+     * @param position the position from oldest (0) to newest ({@link #size()} - 1)
+     * @return the physical slot for the pulse at that position
+     */
+    public int getSlot(int position) {
+        return (tail + position) % capacity();
+    }
+
+    /**
+     * @return the completed fraction of the pulse's life span, clamped to [0, 1]
+     */
+    public float getProgress(int slot, long frameTimeMs) {
+        float progress = (frameTimeMs - createdAt[slot]) / (float) lifeSpans[slot];
+
+        return Math.max(0f, Math.min(1f, progress));
+    }
+
+    public long getCreatedAt(int slot) {
+        return createdAt[slot];
+    }
+
+    public long getLifeSpan(int slot) {
+        return lifeSpans[slot];
+    }
+
+    public float getScale(int slot) {
+        return scales[slot];
+    }
+
+    public void setScale(int slot, float scale) {
+        this.scales[slot] = scale;
+    }
+
+    public int getAlpha(int slot) {
+        return alphas[slot];
+    }
+
+    public void setAlpha(int slot, int alpha) {
+        this.alphas[slot] = alpha;
+    }
+
+    public float getMaxScale(int slot) {
+        return maxScales[slot];
+    }
+
+    public int getMaxAlpha(int slot) {
+        return maxAlphas[slot];
+    }
+
+    /**
+     * @return the pulse's color, or {@link PulseTimeline#COLOR_INHERIT}
+     */
+    public int getColor(int slot) {
+        return colors[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return createdAt.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity();
+    }
+}
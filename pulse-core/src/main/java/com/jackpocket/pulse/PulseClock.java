@@ -0,0 +1,10 @@
+package com.jackpocket.pulse;
+
+/**
+ * A monotonic source of the current time, in milliseconds, used wherever a
+ * frame time is not already being supplied.
+ */
+public interface PulseClock {
+
+    public long nowMs();
+}
@@ -0,0 +1,10 @@
+package com.jackpocket.pulse;
+
+/**
+ * A platform-independent easing curve, mapping the completed fraction of a
+ * pulse's life span to the fraction of its animation to apply.
+ */
+public interface PulseCurve {
+
+    public float getInterpolation(float input);
+}
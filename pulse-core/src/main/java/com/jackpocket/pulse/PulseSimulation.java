@@ -0,0 +1,474 @@
+package com.jackpocket.pulse;
+
+/**
+ * The platform-independent timing core of a pulse sequence: spawning pulses at
+ * the respawn rate for the sequence's duration, expiring them once their life
+ * span has elapsed, and evaluating each live pulse's alpha and scale curves.
+ * <br><br>
+ * When a {@link PulseTimeline} is set, pulses are instead spawned at the times and
+ * with the parameters it schedules, and the respawn rate and duration are ignored.
+ * <br><br>
+ * The number of live pulses may be limited per simulation, and by a {@link PulseBudget}
+ * shared with other simulations. Once either is exhausted, spawning degrades according
+ * to the simulation's budget policy.
+ * <br><br>
+ * All times are in milliseconds, in whatever monotonic time base the caller
+ * supplies to {@link #start(long)} and {@link #advance(long)}. Instances are
+ * not thread-safe.
+ */
+public class PulseSimulation {
+
+    public static final int MAX_ALPHA = 255;
+
+    /**
+     * Drop the oldest live pulse of this simulation to make room for the new one
+     */
+    public static final int BUDGET_POLICY_DROP_OLDEST = 0;
+
+    /**
+     * Skip the new pulse, spawning again at the next scheduled time
+     */
+    public static final int BUDGET_POLICY_SKIP_SPAWN = 1;
+
+    /**
+     * Skip the new pulse and stretch the respawn rate to one that fits within the live
+     * pulses, until the sequence is started again. Timeline rings are skipped instead.
+     */
+    public static final int BUDGET_POLICY_STRETCH_RESPAWN = 2;
+
+    protected final PulseBuffer buffer = new PulseBuffer();
+
+    protected PulseCurve alphaCurve;
+    protected PulseCurve scaleCurve;
+
+    protected PulseTimeline timeline;
+    protected final PulseTimeline.Cursor timelineCursor = new PulseTimeline.Cursor();
+
+    protected long durationMs = 1500;
+    protected long lifeSpanMs = 900;
+    protected long respawnRateMs = 300;
+    protected float maxScale = 3;
+    protected boolean respawnAllowed = true;
+
+    protected int maxLivePulses = PulseBudget.UNLIMITED;
+    protected int budgetPolicy = BUDGET_POLICY_DROP_OLDEST;
+    protected PulseBudget sharedBudget = PulseBudget.getGlobal();
+    protected boolean budgetHeld = true;
+    protected long stretchedRespawnRateMs = 0;
+    protected int budgetExceededCount = 0;
+
+    protected long startTimeMs = 0;
+    protected long lastSpawnedMs = 0;
+
+    /**
+     * Discard any live pulses and begin a new sequence, with the first
+     * pulse becoming available immediately.
+     */
+    public PulseSimulation start(long startTimeMs) {
+        this.startTimeMs = startTimeMs;
+        this.lastSpawnedMs = startTimeMs - respawnRateMs - 1;
+        this.respawnAllowed = true;
+        this.stretchedRespawnRateMs = 0;
+        this.budgetExceededCount = 0;
+
+        timelineCursor.reset(timeline, startTimeMs);
+
+        clearBuffer();
+        buffer.ensureCapacity(getMaxConcurrentPulses());
+
+        this.budgetHeld = true;
+
+        return this;
+    }
+
+    /**
+     * @return true if a new pulse was spawned
+     */
+    public boolean spawnIfAvailable(long frameTimeMs) {
+        if (timeline != null)
+            return spawnScheduled(frameTimeMs);
+
+        if (!isSpawnAvailable(frameTimeMs))
+            return false;
+
+        // A skipped spawn still waits for the next interval, rather than retrying every frame
+        this.lastSpawnedMs = frameTimeMs;
+
+        return spawnWithinBudget(frameTimeMs, lifeSpanMs, maxScale, MAX_ALPHA, PulseTimeline.COLOR_INHERIT);
+    }
+
+    /**
+     * Spawn every timeline ring due by the frame time, at its scheduled time.
+     */
+    protected boolean spawnScheduled(long frameTimeMs) {
+        if (!respawnAllowed)
+            return false;
+
+        boolean spawned = false;
+        int ring;
+
+        while (0 <= (ring = timelineCursor.next(frameTimeMs))) {
+            spawned |= spawnWithinBudget(
+                    timelineCursor.getSpawnTimeMs(),
+                    timeline.getLifeSpanMs(ring),
+                    timeline.getMaxScale(ring),
+                    timeline.getMaxAlpha(ring),
+                    timeline.getColor(ring));
+        }
+
+        return spawned;
+    }
+
+    /**
+     * @return true if the pulse was spawned, or false if it was skipped by the budget policy
+     */
+    protected boolean spawnWithinBudget(long createdAtMs, long lifeSpanMs, float maxScale, int maxAlpha, int color) {
+        if (!acquireBudget())
+            return false;
+
+        // The buffer drops its oldest pulse to fit the new one, which no longer needs its unit
+        if (buffer.isFull()) {
+            releaseBudget(1);
+        }
+
+        buffer.spawn(createdAtMs, lifeSpanMs, maxScale, maxAlpha, color);
+
+        return true;
+    }
+
+    /**
+     * Acquire a unit of the budgets for a new pulse, applying the budget policy if either
+     * is exhausted.
+     *
+     * @return true if the new pulse may be spawned
+     */
+    protected boolean acquireBudget() {
+        reacquireBudget();
+
+        if (buffer.size() < maxLivePulses && sharedBudget.tryAcquire())
+            return true;
+
+        this.budgetExceededCount++;
+
+        switch (budgetPolicy) {
+            case BUDGET_POLICY_DROP_OLDEST:
+                if (buffer.isEmpty())
+                    return false;
+
+                // The new pulse takes over the dropped pulse's unit of the shared budget
+                buffer.dropOldest();
+
+                return true;
+            case BUDGET_POLICY_STRETCH_RESPAWN:
+                this.stretchedRespawnRateMs = Math.max(
+                        stretchedRespawnRateMs,
+                        lifeSpanMs / Math.max(1, buffer.size()));
+
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Expire every pulse whose life span has elapsed, then evaluate
+     * the alpha and scale of those remaining.
+     */
+    public void advance(long frameTimeMs) {
+        releaseBudget(buffer.expire(frameTimeMs));
+
+        for (int i = 0; i < buffer.size(); i++) {
+            evaluate(buffer.getSlot(i), frameTimeMs);
+        }
+    }
+
+    protected void evaluate(int slot, long frameTimeMs) {
+        float progress = buffer.getProgress(slot, frameTimeMs);
+        int maxAlpha = buffer.getMaxAlpha(slot);
+
+        if (alphaCurve != null) {
+            buffer.setAlpha(slot, (int) (maxAlpha - (alphaCurve.getInterpolation(progress) * maxAlpha)));
+        }
+        else {
+            buffer.setAlpha(slot, maxAlpha);
+        }
+
+        if (scaleCurve != null) {
+            buffer.setScale(slot, 1 + ((buffer.getMaxScale(slot) - 1) * scaleCurve.getInterpolation(progress)));
+        }
+    }
+
+    public boolean isSpawnAvailable(long frameTimeMs) {
+        if (timeline != null)
+            return respawnAllowed && timelineCursor.hasPending(frameTimeMs);
+
+        return respawnAllowed
+                && frameTimeMs - startTimeMs < durationMs
+                && getEffectiveRespawnRateMs() < frameTimeMs - lastSpawnedMs;
+    }
+
+    /**
+     * @return the respawn rate, or the rate it was stretched to by {@link #BUDGET_POLICY_STRETCH_RESPAWN}
+     */
+    public long getEffectiveRespawnRateMs() {
+        return Math.max(respawnRateMs, stretchedRespawnRateMs);
+    }
+
+    public boolean isRunning(long frameTimeMs) {
+        if (timeline != null)
+            return (respawnAllowed && !timelineCursor.isComplete())
+                    || !buffer.isEmpty();
+
+        return (respawnAllowed && frameTimeMs - startTimeMs < durationMs)
+                || !buffer.isEmpty();
+    }
+
+    /**
+     * Move the sequence and every live pulse forward in time, so that
+     * resuming after a pause continues exactly where it left off.
+     *
+     * @param deltaMs the length of time the sequence was paused for
+     */
+    public PulseSimulation shift(long deltaMs) {
+        this.startTimeMs += deltaMs;
+        this.lastSpawnedMs += deltaMs;
+
+        timelineCursor.shift(deltaMs);
+
+        buffer.shift(deltaMs);
+
+        return this;
+    }
+
+    /**
+     * Immediately discard all live pulses and end the sequence, which remains
+     * ended until started again.
+     */
+    public PulseSimulation stop() {
+        this.respawnAllowed = false;
+
+        clearBuffer();
+
+        return this;
+    }
+
+    protected void clearBuffer() {
+        releaseBudget(buffer.size());
+
+        buffer.clear();
+    }
+
+    /**
+     * Stop spawning new pulses, allowing those alive to complete normally. The
+     * sequence ends once none remain, regardless of its duration.
+     */
+    public PulseSimulation suspendSpawning() {
+        this.respawnAllowed = false;
+
+        return this;
+    }
+
+    /**
+     * @return the number of pulses that can be alive at once for the current timings
+     */
+    public int getMaxConcurrentPulses() {
+        return Math.max(1, Math.min(maxLivePulses, getUnboundedConcurrentPulses()));
+    }
+
+    protected int getUnboundedConcurrentPulses() {
+        if (timeline != null)
+            return Math.max(PulseBuffer.DEFAULT_CAPACITY, timeline.getMaxConcurrentRings());
+
+        if (respawnRateMs < 1)
+            return PulseBuffer.DEFAULT_CAPACITY;
+
+        return (int) Math.max(PulseBuffer.DEFAULT_CAPACITY, (lifeSpanMs / respawnRateMs) + 2);
+    }
+
+    /**
+     * Copy the curves and timings of another simulation, without its state.
+     */
+    public PulseSimulation copyConfiguration(PulseSimulation source) {
+        this.alphaCurve = source.alphaCurve;
+        this.scaleCurve = source.scaleCurve;
+        this.durationMs = source.durationMs;
+        this.lifeSpanMs = source.lifeSpanMs;
+        this.respawnRateMs = source.respawnRateMs;
+        this.maxScale = source.maxScale;
+        this.timeline = source.timeline;
+        this.maxLivePulses = source.maxLivePulses;
+        this.budgetPolicy = source.budgetPolicy;
+
+        return setSharedBudget(source.sharedBudget);
+    }
+
+    public PulseBuffer getBuffer() {
+        return buffer;
+    }
+
+    public PulseSimulation setAlphaCurve(PulseCurve alphaCurve) {
+        this.alphaCurve = alphaCurve;
+
+        return this;
+    }
+
+    public PulseSimulation setScaleCurve(PulseCurve scaleCurve) {
+        this.scaleCurve = scaleCurve;
+
+        return this;
+    }
+
+    /**
+     * Spawn pulses according to the timeline instead of the respawn rate and duration,
+     * or null to restore them. This takes effect on the next call to {@link #start(long)}.
+     */
+    public PulseSimulation setTimeline(PulseTimeline timeline) {
+        this.timeline = timeline;
+
+        return this;
+    }
+
+    public PulseTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Limit the number of this simulation's pulses alive at once, or {@link PulseBudget#UNLIMITED}.
+     * This takes effect on the next call to {@link #start(long)}.
+     */
+    public PulseSimulation setMaxLivePulses(int maxLivePulses) {
+        this.maxLivePulses = Math.max(1, maxLivePulses);
+
+        return this;
+    }
+
+    public int getMaxLivePulses() {
+        return maxLivePulses;
+    }
+
+    /**
+     * @param budgetPolicy the behavior once a budget is exhausted, e.g. {@link #BUDGET_POLICY_SKIP_SPAWN}
+     */
+    public PulseSimulation setBudgetPolicy(int budgetPolicy) {
+        this.budgetPolicy = budgetPolicy;
+
+        return this;
+    }
+
+    public int getBudgetPolicy() {
+        return budgetPolicy;
+    }
+
+    /**
+     * Share a budget of live pulses with other simulations, moving any live pulses' units to it.
+     */
+    public PulseSimulation setSharedBudget(PulseBudget sharedBudget) {
+        if (sharedBudget == null)
+            throw new RuntimeException("PulseBudget supplied to PulseSimulation.setSharedBudget cannot be null!");
+
+        if (this.sharedBudget == sharedBudget)
+            return this;
+
+        if (budgetHeld) {
+            this.sharedBudget.release(buffer.size());
+
+            sharedBudget.acquire(buffer.size());
+        }
+
+        this.sharedBudget = sharedBudget;
+
+        return this;
+    }
+
+    /**
+     * Return the live pulses' units to the shared budget while they are not being advanced,
+     * e.g. while paused, until {@link #reacquireBudget()} or the next spawn.
+     */
+    public PulseSimulation releaseHeldBudget() {
+        if (!budgetHeld)
+            return this;
+
+        sharedBudget.release(buffer.size());
+
+        this.budgetHeld = false;
+
+        return this;
+    }
+
+    /**
+     * Take back the units of the live pulses released by {@link #releaseHeldBudget()},
+     * regardless of the budget's limit.
+     */
+    public PulseSimulation reacquireBudget() {
+        if (budgetHeld)
+            return this;
+
+        sharedBudget.acquire(buffer.size());
+
+        this.budgetHeld = true;
+
+        return this;
+    }
+
+    protected void releaseBudget(int count) {
+        if (!budgetHeld)
+            return;
+
+        sharedBudget.release(count);
+    }
+
+    public PulseBudget getSharedBudget() {
+        return sharedBudget;
+    }
+
+    /**
+     * @return the number of spawns the budget policy was applied to since the sequence started
+     */
+    public int getBudgetExceededCount() {
+        return budgetExceededCount;
+    }
+
+    public PulseSimulation setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+
+        return this;
+    }
+
+    public PulseSimulation setLifeSpanMs(long lifeSpanMs) {
+        this.lifeSpanMs = lifeSpanMs;
+
+        return this;
+    }
+
+    public PulseSimulation setRespawnRateMs(long respawnRateMs) {
+        this.respawnRateMs = respawnRateMs;
+
+        return this;
+    }
+
+    public PulseSimulation setMaxScale(float maxScale) {
+        this.maxScale = maxScale;
+
+        return this;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public long getLifeSpanMs() {
+        return lifeSpanMs;
+    }
+
+    public long getRespawnRateMs() {
+        return respawnRateMs;
+    }
+
+    public float getMaxScale() {
+        return maxScale;
+    }
+
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+}
@@ -0,0 +1,178 @@
+package com.jackpocket.pulse;
+
+import java.util.ArrayList;
+
+/**
+ * A group of {@link PulseSimulation}s advanced together on a single frame tick, e.g. the
+ * targets of a multi-target controller. Members are removed once their own sequence
+ * completes, and are held until retrieved via {@link #drainFinished()}.
+ * <br><br>
+ * The group's sequence begins when a member is added to an empty group, and an exhausted
+ * live pulse budget is only reported once per group sequence, rather than once per member.
+ * <br><br>
+ * Instances are not thread-safe.
+ */
+public class PulseSimulationGroup<T extends PulseSimulationGroup.Member> {
+
+    public interface Member {
+        public PulseSimulation getSimulation();
+    }
+
+    protected final ArrayList<T> members = new ArrayList<T>();
+    protected final ArrayList<T> finished = new ArrayList<T>();
+
+    protected int livePulses = 0;
+    protected int budgetExceededSpawns = 0;
+    protected boolean budgetExceededInSequence = false;
+
+    /**
+     * Add a member whose simulation has already been started.
+     */
+    public void add(T member) {
+        if (members.isEmpty()) {
+            this.budgetExceededInSequence = false;
+        }
+
+        members.add(member);
+    }
+
+    /**
+     * Remove and stop the member, without it being considered finished.
+     *
+     * @return true if the member was part of this group
+     */
+    public boolean remove(T member) {
+        if (!members.remove(member))
+            return false;
+
+        member.getSimulation()
+                .stop();
+
+        return true;
+    }
+
+    /**
+     * Spawn and advance every member's pulses, removing those whose sequence has completed.
+     *
+     * @return true if a live pulse budget was exhausted for the first time in the group's sequence
+     */
+    public boolean update(long frameTimeMs) {
+        this.livePulses = 0;
+        this.budgetExceededSpawns = 0;
+
+        for (int i = members.size() - 1; 0 <= i; i--) {
+            PulseSimulation simulation = members.get(i).getSimulation();
+            int budgetExceededCount = simulation.getBudgetExceededCount();
+
+            simulation.spawnIfAvailable(frameTimeMs);
+            simulation.advance(frameTimeMs);
+
+            this.budgetExceededSpawns += simulation.getBudgetExceededCount() - budgetExceededCount;
+
+            if (simulation.isRunning(frameTimeMs)) {
+                this.livePulses += simulation.getBuffer().size();
+
+                continue;
+            }
+
+            finished.add(members.remove(i));
+        }
+
+        if (budgetExceededSpawns == 0 || budgetExceededInSequence)
+            return false;
+
+        this.budgetExceededInSequence = true;
+
+        return true;
+    }
+
+    /**
+     * Stop and remove every member, without any being considered finished.
+     */
+    public void stop() {
+        // Stopped so that their pulses no longer count against a shared budget
+        for (int i = 0; i < members.size(); i++) {
+            members.get(i).getSimulation().stop();
+        }
+
+        members.clear();
+        finished.clear();
+    }
+
+    public void shift(long deltaMs) {
+        for (int i = 0; i < members.size(); i++) {
+            members.get(i).getSimulation().shift(deltaMs);
+        }
+    }
+
+    /**
+     * Release or reacquire the shared budget units of every member's live pulses.
+     */
+    public void setBudgetHeld(boolean held) {
+        for (int i = 0; i < members.size(); i++) {
+            if (held)
+                members.get(i).getSimulation().reacquireBudget();
+            else
+                members.get(i).getSimulation().releaseHeldBudget();
+        }
+    }
+
+    public void suspendSpawning() {
+        for (int i = 0; i < members.size(); i++) {
+            members.get(i).getSimulation().suspendSpawning();
+        }
+    }
+
+    /**
+     * @return the combined buffer capacity of every member
+     */
+    public int getLivePulseCapacity() {
+        int capacity = 0;
+
+        for (int i = 0; i < members.size(); i++) {
+            capacity += members.get(i).getSimulation().getBuffer().capacity();
+        }
+
+        return capacity;
+    }
+
+    /**
+     * @return the members whose sequence completed since the last call, or null if none have
+     */
+    public ArrayList<T> drainFinished() {
+        if (finished.isEmpty())
+            return null;
+
+        ArrayList<T> drained = new ArrayList<T>(finished);
+
+        finished.clear();
+
+        return drained;
+    }
+
+    public T get(int index) {
+        return members.get(index);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * @return the number of pulses alive after the last update
+     */
+    public int getLivePulses() {
+        return livePulses;
+    }
+
+    /**
+     * @return the number of spawns a budget policy was applied to during the last update
+     */
+    public int getBudgetExceededSpawns() {
+        return budgetExceededSpawns;
+    }
+}
@@ -0,0 +1,414 @@
+package com.jackpocket.pulse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * An immutable, precompiled schedule of rings: when each ring spawns, how long it
+ * lives, and the maximum scale, alpha and color it pulses with. Timelines are built
+ * declaratively via the {@link Builder} from single rings, bursts and interval
+ * sequences, optionally looped.
+ * <br><br>
+ * Rings are stored sorted by spawn offset in flat parallel arrays, so a {@link Cursor}
+ * finds the rings due on each frame by advancing an index rather than evaluating
+ * conditions per pulse. Timelines hold no playback state and may be shared between
+ * any number of controllers.
+ */
+public final class PulseTimeline {
+
+    public static final int LOOP_INFINITE = -1;
+
+    /**
+     * The color of rings drawn with the controller's pulsing color. A fully transparent
+     * ring would never be visible, so transparent black is reserved for this purpose.
+     */
+    public static final int COLOR_INHERIT = 0;
+
+    private final long[] spawnOffsetsMs;
+    private final long[] lifeSpansMs;
+    private final float[] maxScales;
+    private final int[] maxAlphas;
+    private final int[] colors;
+
+    private final long periodMs;
+    private final int loopCount;
+    private final int maxConcurrentRings;
+
+    private PulseTimeline(Builder builder, ArrayList<Ring> rings) {
+        int count = rings.size();
+
+        this.spawnOffsetsMs = new long[count];
+        this.lifeSpansMs = new long[count];
+        this.maxScales = new float[count];
+        this.maxAlphas = new int[count];
+        this.colors = new int[count];
+
+        long lastEndMs = 0;
+
+        for (int i = 0; i < count; i++) {
+            Ring ring = rings.get(i);
+
+            this.spawnOffsetsMs[i] = ring.spawnOffsetMs;
+            this.lifeSpansMs[i] = ring.lifeSpanMs;
+            this.maxScales[i] = ring.maxScale;
+            this.maxAlphas[i] = ring.maxAlpha;
+            this.colors[i] = ring.color;
+
+            lastEndMs = Math.max(lastEndMs, ring.spawnOffsetMs + ring.lifeSpanMs);
+        }
+
+        // Each loop only starts once every ring of the previous one has completed
+        this.periodMs = Math.max(1, lastEndMs + builder.loopDelayMs);
+        this.loopCount = builder.loopCount;
+        this.maxConcurrentRings = computeMaxConcurrentRings();
+    }
+
+    private int computeMaxConcurrentRings() {
+        int max = 0;
+
+        for (int i = 0; i < size(); i++) {
+            int concurrent = 0;
+
+            for (int j = 0; j <= i; j++) {
+                if (spawnOffsetsMs[i] < spawnOffsetsMs[j] + lifeSpansMs[j])
+                    concurrent++;
+            }
+
+            max = Math.max(max, concurrent);
+        }
+
+        return max;
+    }
+
+    public int size() {
+        return spawnOffsetsMs.length;
+    }
+
+    /**
+     * @return the ring's spawn time, relative to the start of its loop
+     */
+    public long getSpawnOffsetMs(int ring) {
+        return spawnOffsetsMs[ring];
+    }
+
+    public long getLifeSpanMs(int ring) {
+        return lifeSpansMs[ring];
+    }
+
+    public float getMaxScale(int ring) {
+        return maxScales[ring];
+    }
+
+    public int getMaxAlpha(int ring) {
+        return maxAlphas[ring];
+    }
+
+    /**
+     * @return the ring's color, or {@link #COLOR_INHERIT}
+     */
+    public int getColor(int ring) {
+        return colors[ring];
+    }
+
+    /**
+     * @return the length of a single loop, including any delay before the next
+     */
+    public long getPeriodMs() {
+        return periodMs;
+    }
+
+    /**
+     * @return the number of times the timeline plays, or {@link #LOOP_INFINITE}
+     */
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    public boolean isInfinite() {
+        return loopCount == LOOP_INFINITE;
+    }
+
+    /**
+     * @return the largest number of rings alive at once
+     */
+    public int getMaxConcurrentRings() {
+        return maxConcurrentRings;
+    }
+
+    /**
+     * Tracks the playback position of a {@link PulseTimeline} for a single pulse sequence.
+     * Frame times supplied to a cursor must never decrease. Instances are not thread-safe.
+     */
+    public static class Cursor {
+
+        private PulseTimeline timeline;
+        private long startTimeMs;
+        private int loop;
+        private int nextRing;
+        private long spawnTimeMs;
+
+        public Cursor reset(PulseTimeline timeline, long startTimeMs) {
+            this.timeline = timeline;
+            this.startTimeMs = startTimeMs;
+            this.loop = 0;
+            this.nextRing = 0;
+
+            return this;
+        }
+
+        /**
+         * Advance past the next ring due to spawn by the supplied frame time. Rings that
+         * would already have expired by then (e.g. after a stalled frame) are skipped.
+         *
+         * @return the index of the ring to spawn, or -1 if none are due
+         */
+        public int next(long frameTimeMs) {
+            if (timeline == null)
+                return -1;
+
+            skipElapsedLoops(frameTimeMs);
+
+            while (!isComplete()) {
+                if (nextRing == timeline.size()) {
+                    this.loop++;
+                    this.nextRing = 0;
+
+                    continue;
+                }
+
+                long spawnTimeMs = getLoopStartMs() + timeline.spawnOffsetsMs[nextRing];
+
+                if (frameTimeMs < spawnTimeMs)
+                    return -1;
+
+                int ring = nextRing++;
+
+                if (spawnTimeMs + timeline.lifeSpansMs[ring] <= frameTimeMs)
+                    continue;
+
+                this.spawnTimeMs = spawnTimeMs;
+
+                return ring;
+            }
+
+            return -1;
+        }
+
+        private void skipElapsedLoops(long frameTimeMs) {
+            long elapsedLoops = (frameTimeMs - startTimeMs) / timeline.periodMs;
+
+            if (elapsedLoops <= loop)
+                return;
+
+            // Every ring of a loop has expired by the time the next loop starts
+            this.loop = (int) (timeline.isInfinite()
+                    ? elapsedLoops
+                    : Math.min(elapsedLoops, timeline.loopCount));
+
+            this.nextRing = 0;
+        }
+
+        /**
+         * @return true if another ring is due to spawn by the supplied frame time
+         */
+        public boolean hasPending(long frameTimeMs) {
+            if (timeline == null || isComplete())
+                return false;
+
+            if (nextRing < timeline.size())
+                return getLoopStartMs() + timeline.spawnOffsetsMs[nextRing] <= frameTimeMs;
+
+            // Not being complete, another loop follows this one
+            return getLoopStartMs() + timeline.periodMs + timeline.spawnOffsetsMs[0] <= frameTimeMs;
+        }
+
+        /**
+         * @return true once every ring of every loop has been spawned
+         */
+        public boolean isComplete() {
+            if (timeline == null || timeline.size() == 0)
+                return true;
+
+            if (timeline.isInfinite())
+                return false;
+
+            return timeline.loopCount <= loop
+                    || (loop == timeline.loopCount - 1 && nextRing == timeline.size());
+        }
+
+        /**
+         * @return the scheduled spawn time of the ring last returned by {@link #next(long)}
+         */
+        public long getSpawnTimeMs() {
+            return spawnTimeMs;
+        }
+
+        /**
+         * Move playback forward in time, e.g. to exclude time spent paused.
+         */
+        public void shift(long deltaMs) {
+            this.startTimeMs += deltaMs;
+        }
+
+        private long getLoopStartMs() {
+            return startTimeMs + (loop * timeline.periodMs);
+        }
+    }
+
+    public static class Builder {
+
+        private final ArrayList<Ring> rings = new ArrayList<Ring>();
+
+        private long lifeSpanMs = 900;
+        private float maxScale = 3;
+        private int maxAlpha = PulseSimulation.MAX_ALPHA;
+        private int color = COLOR_INHERIT;
+
+        private int loopCount = 1;
+        private long loopDelayMs = 0;
+
+        /**
+         * Set the life span of rings added after this call.
+         */
+        public Builder setLifeSpanMs(long lifeSpanMs) {
+            this.lifeSpanMs = lifeSpanMs;
+
+            return this;
+        }
+
+        /**
+         * Set the maximum scale of rings added after this call.
+         */
+        public Builder setMaxScale(float maxScale) {
+            this.maxScale = maxScale;
+
+            return this;
+        }
+
+        /**
+         * Set the starting alpha, from 0 to 255, of rings added after this call.
+         */
+        public Builder setMaxAlpha(int maxAlpha) {
+            this.maxAlpha = maxAlpha;
+
+            return this;
+        }
+
+        /**
+         * Set the color of rings added after this call, or {@link #COLOR_INHERIT}.
+         */
+        public Builder setColor(int color) {
+            this.color = color;
+
+            return this;
+        }
+
+        public Builder addRing(long spawnOffsetMs) {
+            return addRing(spawnOffsetMs, maxScale, maxAlpha);
+        }
+
+        private Builder addRing(long spawnOffsetMs, float maxScale, int maxAlpha) {
+            rings.add(new Ring(spawnOffsetMs, lifeSpanMs, maxScale, Math.max(0, Math.min(PulseSimulation.MAX_ALPHA, maxAlpha)), color));
+
+            return this;
+        }
+
+        /**
+         * Add rings spawning in quick succession, each staggered from the previous one
+         * in time, maximum scale and starting alpha.
+         *
+         * @param scaleStep the amount each ring's maximum scale is reduced from the previous ring's
+         * @param alphaStep the amount each ring's starting alpha is reduced from the previous ring's
+         */
+        public Builder addBurst(long spawnOffsetMs, int count, long staggerMs, float scaleStep, int alphaStep) {
+            for (int i = 0; i < count; i++) {
+                addRing(
+                        spawnOffsetMs + (i * staggerMs),
+                        Math.max(1, maxScale - (i * scaleStep)),
+                        maxAlpha - (i * alphaStep));
+            }
+
+            return this;
+        }
+
+        /**
+         * Add a ring at the offset, followed by one ring after each successive interval.
+         */
+        public Builder addIntervals(long spawnOffsetMs, long... intervalsMs) {
+            long offsetMs = spawnOffsetMs;
+
+            addRing(offsetMs);
+
+            for (long intervalMs : intervalsMs) {
+                offsetMs += intervalMs;
+
+                addRing(offsetMs);
+            }
+
+            return this;
+        }
+
+        /**
+         * Add rings at a fixed interval for the duration, as a controller without a timeline spawns them.
+         */
+        public Builder addRepeating(long spawnOffsetMs, long intervalMs, long durationMs) {
+            for (long offsetMs = 0; offsetMs < durationMs; offsetMs += Math.max(1, intervalMs)) {
+                addRing(spawnOffsetMs + offsetMs);
+            }
+
+            return this;
+        }
+
+        /**
+         * @param loopCount the number of times to play the timeline, or {@link #LOOP_INFINITE}
+         */
+        public Builder setLoopCount(int loopCount) {
+            this.loopCount = loopCount;
+
+            return this;
+        }
+
+        /**
+         * Set the delay between the last ring of a loop completing and the next loop starting.
+         */
+        public Builder setLoopDelayMs(long loopDelayMs) {
+            this.loopDelayMs = loopDelayMs;
+
+            return this;
+        }
+
+        /**
+         * Compile the rings added so far into an immutable timeline.
+         */
+        public PulseTimeline build() {
+            ArrayList<Ring> sorted = new ArrayList<Ring>(rings);
+
+            Collections.sort(sorted, new Comparator<Ring>() {
+                @Override
+                public int compare(Ring a, Ring b) {
+                    return a.spawnOffsetMs < b.spawnOffsetMs ? -1 : (a.spawnOffsetMs == b.spawnOffsetMs ? 0 : 1);
+                }
+            });
+
+            return new PulseTimeline(this, sorted);
+        }
+    }
+
+    private static class Ring {
+
+        final long spawnOffsetMs;
+        final long lifeSpanMs;
+        final float maxScale;
+        final int maxAlpha;
+        final int color;
+
+        Ring(long spawnOffsetMs, long lifeSpanMs, float maxScale, int maxAlpha, int color) {
+            this.spawnOffsetMs = spawnOffsetMs;
+            this.lifeSpanMs = lifeSpanMs;
+            this.maxScale = maxScale;
+            this.maxAlpha = maxAlpha;
+            this.color = color;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.jackpocket.pulse;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Steps simulations through virtual time and compares the live pulses at fixed frames
+ * against recorded golden states, formatted as {@code createdAtMs:scale@alpha}.
+ */
+public class PulseFrameStateTest {
+
+    private static final long FRAME_INTERVAL_MS = 16;
+
+    private static final PulseCurve LINEAR = new PulseCurve() {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    };
+
+    @Test
+    public void testRespawningFrameStates() {
+        PulseSimulation simulation = createSimulation();
+
+        assertFrameStates(simulation, new long[] { 0, 160, 320, 480, 800, 1200, 1600, 2400 }, new String[] {
+                "0:1.000@255",
+                "0:1.356@209",
+                "0:1.711@164, 304:1.036@250",
+                "0:2.067@119, 304:1.391@205",
+                "0:2.778@28, 304:2.102@114, 608:1.427@200",
+                "304:2.991@1, 608:2.316@87, 912:1.640@173",
+                "912:2.529@60, 1216:1.853@146",
+                "",
+        });
+    }
+
+    @Test
+    public void testTimelineFrameStates() {
+        PulseTimeline timeline = new PulseTimeline.Builder()
+                .setLifeSpanMs(700)
+                .addBurst(0, 2, 150, 0.5f, 60)
+                .build();
+
+        PulseSimulation simulation = createSimulation()
+                .setTimeline(timeline);
+
+        assertFrameStates(simulation, new long[] { 0, 160, 320, 480, 800, 1200 }, new String[] {
+                "0:1.000@255",
+                "0:1.457@196, 150:1.021@192",
+                "0:1.914@138, 150:1.364@147",
+                "0:2.371@80, 150:1.707@103",
+                "150:2.393@13",
+                "",
+        });
+    }
+
+    @Test
+    public void testPausedFrameStatesResumeWhereTheyLeftOff() {
+        PulseSimulation simulation = createSimulation();
+        ManualPulseClock clock = new ManualPulseClock();
+
+        simulation.start(clock.nowMs());
+
+        stepUntil(simulation, clock, 160);
+
+        // Paused for 5 seconds, then shifted by the time spent paused
+        clock.advance(5000);
+        simulation.shift(5000);
+
+        stepUntil(simulation, clock, 5320);
+
+        assertEquals("5000:1.711@164, 5304:1.036@250", describe(simulation.getBuffer()));
+    }
+
+    @Test
+    public void testStoppedSequenceStaysStoppedAcrossPauses() {
+        PulseSimulation simulation = createSimulation();
+        ManualPulseClock clock = new ManualPulseClock();
+
+        simulation.start(clock.nowMs());
+
+        stepUntil(simulation, clock, 160);
+
+        simulation.stop();
+
+        // Paused and resumed well within the sequence's duration
+        clock.advance(200);
+        simulation.shift(200);
+
+        assertFalse(simulation.isRunning(clock.nowMs()));
+        assertFalse(simulation.spawnIfAvailable(clock.nowMs()));
+        assertEquals("", describe(simulation.getBuffer()));
+
+        simulation.start(clock.nowMs());
+
+        assertTrue(simulation.isRunning(clock.nowMs()));
+        assertTrue(simulation.spawnIfAvailable(clock.nowMs()));
+    }
+
+    private PulseSimulation createSimulation() {
+        return new PulseSimulation()
+                .setAlphaCurve(new InterpolatorTable(LINEAR))
+                .setScaleCurve(new InterpolatorTable(LINEAR))
+                .setDurationMs(1500)
+                .setLifeSpanMs(900)
+                .setRespawnRateMs(300)
+                .setMaxScale(3);
+    }
+
+    private static void assertFrameStates(PulseSimulation simulation, long[] frameTimesMs, String[] expectedStates) {
+        ManualPulseClock clock = new ManualPulseClock();
+
+        simulation.start(clock.nowMs());
+
+        for (int i = 0; i < frameTimesMs.length; i++) {
+            stepUntil(simulation, clock, frameTimesMs[i]);
+
+            assertEquals("Frame at " + frameTimesMs[i] + "ms", expectedStates[i], describe(simulation.getBuffer()));
+        }
+    }
+
+    /**
+     * Update the simulation on every frame from the clock's current time up to and including the supplied time.
+     */
+    private static void stepUntil(PulseSimulation simulation, ManualPulseClock clock, long frameTimeMs) {
+        while (true) {
+            simulation.spawnIfAvailable(clock.nowMs());
+            simulation.advance(clock.nowMs());
+
+            if (frameTimeMs <= clock.nowMs())
+                return;
+
+            clock.advance(FRAME_INTERVAL_MS);
+        }
+    }
+
+    private static String describe(PulseBuffer buffer) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < buffer.size(); i++) {
+            int slot = buffer.getSlot(i);
+
+            if (0 < i) {
+                builder.append(", ");
+            }
+
+            builder.append(String.format(Locale.US, "%d:%.3f@%d", buffer.getCreatedAt(slot), buffer.getScale(slot), buffer.getAlpha(slot)));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.jackpocket.pulse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class PulseSimulationAllocationTest {
+
+    private static final long FRAME_INTERVAL_MS = 16;
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int MEASURED_FRAMES = 5000;
+
+    private static final PulseCurve LINEAR = new PulseCurve() {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    };
+
+    private com.sun.management.ThreadMXBean threadBean;
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        this.threadBean = (com.sun.management.ThreadMXBean) bean;
+
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void testRespawningUpdatesDoNotAllocate() {
+        PulseSimulation simulation = createSimulation()
+                .setDurationMs(Long.MAX_VALUE / 4);
+
+        assertEquals(0, measureAllocatedBytes(simulation));
+    }
+
+    @Test
+    public void testTimelineUpdatesDoNotAllocate() {
+        PulseTimeline timeline = new PulseTimeline.Builder()
+                .setLifeSpanMs(5000)
+                .addRing(0)
+                .setLifeSpanMs(700)
+                .addBurst(0, 2, 150, 0.5f, 60)
+                .addRepeating(100, 100, 2000)
+                .setLoopCount(PulseTimeline.LOOP_INFINITE)
+                .setLoopDelayMs(400)
+                .build();
+
+        PulseSimulation simulation = createSimulation()
+                .setTimeline(timeline);
+
+        assertEquals(0, measureAllocatedBytes(simulation));
+    }
+
+    @Test
+    public void testBudgetedUpdatesDoNotAllocate() {
+        PulseSimulation simulation = createSimulation()
+                .setDurationMs(Long.MAX_VALUE / 4)
+                .setRespawnRateMs(50)
+                .setMaxLivePulses(4)
+                .setSharedBudget(new PulseBudget(8));
+
+        assertEquals(0, measureAllocatedBytes(simulation));
+    }
+
+    private PulseSimulation createSimulation() {
+        return new PulseSimulation()
+                .setAlphaCurve(new InterpolatorTable(LINEAR))
+                .setScaleCurve(new InterpolatorTable(LINEAR));
+    }
+
+    /**
+     * Run the spawn and advance path until compiled, then measure the bytes allocated by
+     * the current thread over further frames, less the cost of measuring itself.
+     */
+    private long measureAllocatedBytes(PulseSimulation simulation) {
+        simulation.start(0);
+
+        long frameTimeMs = tick(simulation, 0, WARMUP_FRAMES);
+        long threadId = Thread.currentThread().getId();
+
+        long baselineStart = threadBean.getThreadAllocatedBytes(threadId);
+        long baselineEnd = threadBean.getThreadAllocatedBytes(threadId);
+
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+
+        tick(simulation, frameTimeMs, MEASURED_FRAMES);
+
+        long end = threadBean.getThreadAllocatedBytes(threadId);
+
+        return (end - start) - (baselineEnd - baselineStart);
+    }
+
+    private static long tick(PulseSimulation simulation, long frameTimeMs, int frames) {
+        for (int i = 0; i < frames; i++) {
+            frameTimeMs += FRAME_INTERVAL_MS;
+
+            simulation.spawnIfAvailable(frameTimeMs);
+            simulation.advance(frameTimeMs);
+        }
+
+        return frameTimeMs;
+    }
+}
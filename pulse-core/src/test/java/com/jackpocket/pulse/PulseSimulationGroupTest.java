@@ -0,0 +1,106 @@
+package com.jackpocket.pulse;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PulseSimulationGroupTest {
+
+    private static final long FRAME_INTERVAL_MS = 16;
+
+    private static class Member implements PulseSimulationGroup.Member {
+
+        final PulseSimulation simulation = new PulseSimulation();
+
+        @Override
+        public PulseSimulation getSimulation() {
+            return simulation;
+        }
+    }
+
+    @Test
+    public void testBudgetExhaustionReportedOncePerSequence() {
+        PulseBudget budget = new PulseBudget(1);
+        PulseSimulationGroup<Member> group = new PulseSimulationGroup<Member>();
+
+        // Staggered so that each member first exceeds the budget on a different frame
+        group.add(createMember(budget, 0));
+        group.add(createMember(budget, 50));
+        group.add(createMember(budget, 120));
+
+        int reports = 0;
+        int exceededSpawns = 0;
+
+        for (long frameTimeMs = 0; !group.isEmpty(); frameTimeMs += FRAME_INTERVAL_MS) {
+            if (group.update(frameTimeMs)) {
+                reports++;
+            }
+
+            exceededSpawns += group.getBudgetExceededSpawns();
+        }
+
+        assertEquals(1, reports);
+        assertTrue(1 < exceededSpawns);
+        assertEquals(0, budget.getLivePulses());
+
+        // A new sequence begins once the group is empty
+        group.add(createMember(budget, 0));
+        group.add(createMember(budget, 0));
+
+        assertTrue(group.update(0));
+        assertFalse(group.update(FRAME_INTERVAL_MS));
+    }
+
+    @Test
+    public void testFinishedMembersAreRemovedAndDrained() {
+        PulseSimulationGroup<Member> group = new PulseSimulationGroup<Member>();
+        Member first = new Member();
+        first.simulation
+                .setDurationMs(1)
+                .setLifeSpanMs(100)
+                .start(0);
+
+        Member second = new Member();
+        second.simulation
+                .setDurationMs(1000)
+                .setLifeSpanMs(100)
+                .start(0);
+
+        group.add(first);
+        group.add(second);
+
+        group.update(0);
+
+        assertEquals(2, group.getLivePulses());
+        assertNull(group.drainFinished());
+
+        group.update(200);
+
+        ArrayList<Member> finished = group.drainFinished();
+
+        assertEquals(1, finished.size());
+        assertSame(first, finished.get(0));
+        assertEquals(1, group.size());
+        assertSame(second, group.get(0));
+        assertNull(group.drainFinished());
+    }
+
+    private static Member createMember(PulseBudget budget, long startTimeMs) {
+        Member member = new Member();
+        member.simulation
+                .setDurationMs(1000)
+                .setLifeSpanMs(300)
+                .setRespawnRateMs(100)
+                .setSharedBudget(budget)
+                .setBudgetPolicy(PulseSimulation.BUDGET_POLICY_SKIP_SPAWN)
+                .start(startTimeMs);
+
+        return member;
+    }
+}
@@ -0,0 +1,80 @@
+package com.jackpocket.pulse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PulseTimelineTest {
+
+    private static final long FRAME_INTERVAL_MS = 16;
+
+    @Test
+    public void testLongRingSurvivesShorterRingsSpawnedAfterIt() {
+        PulseTimeline timeline = new PulseTimeline.Builder()
+                .setLifeSpanMs(5000)
+                .addRing(0)
+                .setLifeSpanMs(200)
+                .addRepeating(100, 100, 2000)
+                .build();
+
+        PulseSimulation simulation = new PulseSimulation()
+                .setTimeline(timeline)
+                .start(0);
+
+        for (long frameTimeMs = 0; frameTimeMs < 4900; frameTimeMs += FRAME_INTERVAL_MS) {
+            simulation.spawnIfAvailable(frameTimeMs);
+            simulation.advance(frameTimeMs);
+
+            PulseBuffer buffer = simulation.getBuffer();
+
+            assertTrue("Buffer overflowed at " + frameTimeMs + "ms", buffer.size() <= buffer.capacity());
+            assertEquals("Long ring dropped at " + frameTimeMs + "ms", 5000, buffer.getLifeSpan(buffer.getSlot(0)));
+        }
+
+        simulation.advance(5000);
+
+        assertEquals(0, simulation.getBuffer().size());
+    }
+
+    @Test
+    public void testExpiredPulsesBehindLongerLivedOnesAreCompacted() {
+        PulseBuffer buffer = new PulseBuffer(4);
+        buffer.spawn(0, 1000);
+        buffer.spawn(10, 100);
+        buffer.spawn(20, 500);
+        buffer.spawn(30, 100);
+
+        assertEquals(2, buffer.expire(200));
+        assertEquals(2, buffer.size());
+        assertEquals(1000, buffer.getLifeSpan(buffer.getSlot(0)));
+        assertEquals(500, buffer.getLifeSpan(buffer.getSlot(1)));
+
+        // The compacted slots are reused without dropping live pulses
+        buffer.spawn(200, 100);
+        buffer.spawn(210, 100);
+
+        assertEquals(4, buffer.size());
+        assertEquals(1000, buffer.getLifeSpan(buffer.getSlot(0)));
+        assertEquals(100, buffer.getLifeSpan(buffer.getSlot(3)));
+    }
+
+    @Test
+    public void testCursorSkipsRingsExpiredDuringStalledFrame() {
+        PulseTimeline timeline = new PulseTimeline.Builder()
+                .setLifeSpanMs(100)
+                .addIntervals(0, 50, 50, 50)
+                .build();
+
+        PulseTimeline.Cursor cursor = new PulseTimeline.Cursor()
+                .reset(timeline, 0);
+
+        assertEquals(0, cursor.next(0));
+        assertEquals(-1, cursor.next(0));
+
+        // Rings at 50 and 100ms have expired by 200ms, leaving only the ring at 150ms
+        assertEquals(3, cursor.next(200));
+        assertEquals(150, cursor.getSpawnTimeMs());
+        assertTrue(cursor.isComplete());
+    }
+}
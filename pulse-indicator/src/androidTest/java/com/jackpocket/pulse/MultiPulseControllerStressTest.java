@@ -0,0 +1,126 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.rule.ActivityTestRule;
+
+import com.jackpocket.pulse.layouts.PulseTestActivity;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ticks and draws a {@link MultiPulseController} with 1, 10, 100 and 1000 targets into an
+ * offscreen Canvas, recording the cost of a frame per target.
+ * <br><br>
+ * A frame's work is linear in its live pulses, so only the shared per-frame overhead (one tick,
+ * one frame publish, one invalidation and one draw pass) is amortized across targets. The
+ * per-target cost is therefore expected to stay flat or fall as targets are added, but never grow.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MultiPulseControllerStressTest {
+
+    private static final String TAG = "PulseStress";
+
+    private static final int[] TARGET_COUNTS = new int[] { 1, 10, 100, 1000 };
+    private static final int CANVAS_SIZE_PX = 1024;
+    private static final int TARGET_SIZE_PX = 24;
+
+    private static final long FRAME_INTERVAL_MS = 16;
+    private static final int WARMUP_FRAMES = 120;
+    private static final int MEASURED_FRAMES = 240;
+
+    // Allows for timing noise on shared devices, while still catching super-linear growth
+    private static final float MAX_PER_TARGET_GROWTH = 2f;
+
+    @Rule
+    public ActivityTestRule<PulseTestActivity> activityRule = new ActivityTestRule<PulseTestActivity>(PulseTestActivity.class);
+
+    @Test
+    public void testFrameCostPerTargetDoesNotGrowWithTargetCount() throws Throwable {
+        Bitmap bitmap = Bitmap.createBitmap(CANVAS_SIZE_PX, CANVAS_SIZE_PX, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        double[] nsPerTarget = new double[TARGET_COUNTS.length];
+
+        for (int i = 0; i < TARGET_COUNTS.length; i++) {
+            nsPerTarget[i] = measureFrameCostPerTarget(TARGET_COUNTS[i], canvas);
+
+            Log.i(TAG, String.format(Locale.US, "%d targets: %.0f ns per target per frame", TARGET_COUNTS[i], nsPerTarget[i]));
+        }
+
+        bitmap.recycle();
+
+        // Compared from 10 targets, as a single target's cost is dominated by the shared overhead
+        for (int i = 2; i < TARGET_COUNTS.length; i++) {
+            assertTrue(
+                    String.format(Locale.US, "Per-target frame cost grew from %.0fns at %d targets to %.0fns at %d", nsPerTarget[1], TARGET_COUNTS[1], nsPerTarget[i], TARGET_COUNTS[i]),
+                    nsPerTarget[i] <= nsPerTarget[1] * MAX_PER_TARGET_GROWTH);
+        }
+    }
+
+    private double measureFrameCostPerTarget(final int targetCount, Canvas canvas) throws Throwable {
+        final MultiPulseController[] controller = new MultiPulseController[1];
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                controller[0] = new MultiPulseController(activityRule.getActivity().host);
+
+                // Paused so that frames are only ticked by this test, in virtual time
+                controller[0].setDurationMs(60000)
+                        .pause(PulseController.PAUSE_REASON_USER);
+
+                int columns = (int) Math.ceil(Math.sqrt(targetCount));
+                int spacing = CANVAS_SIZE_PX / columns;
+
+                for (int i = 0; i < targetCount; i++) {
+                    int left = (i % columns) * spacing;
+                    int top = (i / columns) * spacing;
+
+                    controller[0].addTarget(new Rect(left, top, left + TARGET_SIZE_PX, top + TARGET_SIZE_PX));
+                }
+            }
+        });
+
+        long frameTimeMs = UptimePulseClock.getInstance().nowMs();
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            frameTimeMs += FRAME_INTERVAL_MS;
+
+            controller[0].update(frameTimeMs);
+            controller[0].draw(canvas);
+        }
+
+        long startNs = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            frameTimeMs += FRAME_INTERVAL_MS;
+
+            controller[0].update(frameTimeMs);
+            controller[0].draw(canvas);
+        }
+
+        long elapsedNs = System.nanoTime() - startNs;
+
+        assertEquals("Targets finished during the measurement", targetCount, controller[0].getTargetCount());
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                controller[0].stopPulsing();
+            }
+        });
+
+        return elapsedNs / (double) (MEASURED_FRAMES * targetCount);
+    }
+}
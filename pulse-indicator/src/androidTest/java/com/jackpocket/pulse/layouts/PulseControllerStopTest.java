@@ -0,0 +1,80 @@
+package com.jackpocket.pulse.layouts;
+
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.rule.ActivityTestRule;
+
+import com.jackpocket.pulse.PulseController;
+import com.jackpocket.pulse.PulseScheduler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(AndroidJUnit4.class)
+public class PulseControllerStopTest {
+
+    @Rule
+    public ActivityTestRule<PulseTestActivity> activityRule = new ActivityTestRule<PulseTestActivity>(PulseTestActivity.class);
+
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    // Held strongly, as the controller only holds it weakly
+    private final PulseController.PulseEventListener finishedListener = new PulseController.PulseEventListener() {
+        @Override
+        public void onPulseEvent(View view) {
+            finishedCount.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void testStoppedControllerStaysStoppedWhenResumed() throws Throwable {
+        final PulseTestActivity activity = activityRule.getActivity();
+        final PulsingOverlay[] overlay = new PulsingOverlay[1];
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                overlay[0] = new PulsingOverlay(activity.host);
+                overlay[0].getPulseController()
+                        .setDurationMs(5000)
+                        .setFinishedListener(finishedListener)
+                        .attachTo(activity, activity.target);
+            }
+        });
+
+        Thread.sleep(200);
+
+        final PulseController controller = overlay[0].getPulseController();
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                controller.stopPulsing();
+
+                // e.g. the Activity being stopped and started again within the sequence's duration
+                controller.pause(PulseController.PAUSE_REASON_STOPPED);
+                controller.resume(PulseController.PAUSE_REASON_STOPPED);
+            }
+        });
+
+        Thread.sleep(500);
+
+        assertFalse("Stopped controller resumed pulsing", controller.isRunning());
+        assertFalse("Stopped controller re-registered", PulseScheduler.getInstance().isRegistered(controller));
+        assertEquals("Finished listener triggered after stopping", 0, finishedCount.get());
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                overlay[0].release();
+            }
+        });
+    }
+}
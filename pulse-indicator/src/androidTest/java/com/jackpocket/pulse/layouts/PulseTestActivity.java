@@ -0,0 +1,68 @@
+package com.jackpocket.pulse.layouts;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.FrameLayout;
+
+/**
+ * Hosts a target View within a FrameLayout, both counting the hardware-accelerated
+ * draws they receive. Software draws (e.g. target snapshots) are not counted.
+ */
+public class PulseTestActivity extends Activity {
+
+    public CountingFrameLayout host;
+    public CountingView target;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        this.host = new CountingFrameLayout(this);
+        this.target = new CountingView(this);
+        this.target.setBackgroundColor(Color.BLUE);
+
+        host.addView(target, new FrameLayout.LayoutParams(200, 200, android.view.Gravity.CENTER));
+
+        setContentView(host);
+    }
+
+    public static class CountingFrameLayout extends FrameLayout {
+
+        public volatile int drawCount = 0;
+
+        public CountingFrameLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void dispatchDraw(Canvas canvas) {
+            if (canvas.isHardwareAccelerated()) {
+                drawCount++;
+            }
+
+            super.dispatchDraw(canvas);
+        }
+    }
+
+    public static class CountingView extends View {
+
+        public volatile int drawCount = 0;
+
+        public CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            if (canvas.isHardwareAccelerated()) {
+                drawCount++;
+            }
+
+            super.onDraw(canvas);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jackpocket.pulse.layouts;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.rule.ActivityTestRule;
+
+import com.jackpocket.pulse.PulseMetrics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class PulsingOverlayTest {
+
+    @Rule
+    public ActivityTestRule<PulseTestActivity> activityRule = new ActivityTestRule<PulseTestActivity>(PulseTestActivity.class);
+
+    @Test
+    public void testPulsingDoesNotRedrawHostOrChildren() throws Throwable {
+        final PulseTestActivity activity = activityRule.getActivity();
+        final PulsingOverlay[] overlay = new PulsingOverlay[1];
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                overlay[0] = new PulsingOverlay(activity.host);
+                overlay[0].getPulseController()
+                        .setMetricsEnabled(true)
+                        .setDurationMs(2000);
+            }
+        });
+
+        InstrumentationRegistry.getInstrumentation()
+                .waitForIdleSync();
+
+        final int hostDrawsBefore = activity.host.drawCount;
+        final int targetDrawsBefore = activity.target.drawCount;
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                overlay[0].attachTo(activity, activity.target);
+            }
+        });
+
+        Thread.sleep(1000);
+
+        PulseMetrics metrics = overlay[0].getPulseController()
+                .getMetrics();
+
+        assertTrue("Too few frames ticked: " + metrics.getFramesTicked(), 10 < metrics.getFramesTicked());
+        assertTrue("Overlay was never drawn", 0 < metrics.getDrawTimes().getTotalCount());
+        assertEquals("Host redrawn while pulsing", hostDrawsBefore, activity.host.drawCount);
+        assertEquals("Target redrawn while pulsing", targetDrawsBefore, activity.target.drawCount);
+
+        activityRule.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                overlay[0].release();
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+
+/**
+ * Steps a {@link PulseController} through virtual time and draws each frame into
+ * a reusable Bitmap, independent of the display, its frame callbacks and the wall
+ * clock. Intended for deterministic golden-image and frame-cost tests (e.g. under
+ * Robolectric, with the controller's metrics enabled).
+ * <br><br>
+ * The controller is detached from its {@link PulseScheduler} and driven by a
+ * {@link ManualPulseClock}; it should not be attached to a View while in use here.
+ */
+public class HeadlessPulseRenderer {
+
+    private final PulseController controller;
+    private final ManualPulseClock clock;
+
+    private final Bitmap bitmap;
+    private final Canvas canvas;
+
+    private int backgroundColor = Color.TRANSPARENT;
+    private boolean running = false;
+
+    public HeadlessPulseRenderer(PulseController controller, int width, int height) {
+        this(controller, new ManualPulseClock(), width, height);
+    }
+
+    public HeadlessPulseRenderer(PulseController controller, ManualPulseClock clock, int width, int height) {
+        this.controller = controller;
+        this.clock = clock;
+
+        this.controller
+                .setClock(clock)
+                .setScheduler(null);
+
+        this.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        this.canvas = new Canvas(bitmap);
+    }
+
+    /**
+     * Begin a pulsing sequence behind the supplied region at the current virtual time.
+     */
+    public HeadlessPulseRenderer attachTo(Rect boundaries) {
+        controller.attachTo(boundaries);
+
+        this.running = true;
+
+        return this;
+    }
+
+    /**
+     * Advance virtual time and update the controller to it, finishing the sequence
+     * (and triggering its callbacks) as the {@link PulseScheduler} would once complete.
+     *
+     * @return true if the sequence is still running
+     */
+    public boolean step(long frameIntervalMs) {
+        long frameTimeMs = clock.advance(frameIntervalMs);
+
+        controller.update(frameTimeMs);
+
+        if (running && !controller.isRunning(frameTimeMs)) {
+            this.running = false;
+
+            controller.finishPulsing();
+        }
+
+        return running;
+    }
+
+    /**
+     * Draw the controller's most recently published frame.
+     *
+     * @return the reused Bitmap containing the frame; its contents are replaced on the next render
+     */
+    public Bitmap render() {
+        bitmap.eraseColor(backgroundColor);
+
+        controller.draw(canvas);
+
+        return bitmap;
+    }
+
+    public Bitmap stepAndRender(long frameIntervalMs) {
+        step(frameIntervalMs);
+
+        return render();
+    }
+
+    public HeadlessPulseRenderer setBackgroundColor(int backgroundColor) {
+        this.backgroundColor = backgroundColor;
+
+        return this;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public ManualPulseClock getClock() {
+        return clock;
+    }
+
+    public PulseController getController() {
+        return controller;
+    }
+}
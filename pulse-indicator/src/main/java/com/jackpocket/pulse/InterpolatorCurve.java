@@ -0,0 +1,24 @@
+package com.jackpocket.pulse;
+
+import android.view.animation.Interpolator;
+
+/**
+ * Adapts an Android {@link Interpolator} to the platform-independent {@link PulseCurve}.
+ */
+public class InterpolatorCurve implements PulseCurve {
+
+    private final Interpolator interpolator;
+
+    public InterpolatorCurve(Interpolator interpolator) {
+        this.interpolator = interpolator;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        return interpolator.getInterpolation(input);
+    }
+
+    public Interpolator getInterpolator() {
+        return interpolator;
+    }
+}
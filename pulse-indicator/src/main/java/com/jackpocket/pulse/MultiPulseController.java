@@ -0,0 +1,324 @@
+package com.jackpocket.pulse;
+
+import android.app.Activity;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link PulseController} pulsing any number of targets on a single host,
+ * sharing one frame tick, one Paint and one batched draw pass.
+ * <br><br>
+ * Targets may be added as Views or as raw boundaries within the host, and each
+ * runs its own pulse sequence using the controller's configuration at the time
+ * it was added. Targets are removed automatically when their sequence completes,
+ * triggering their own finished listener. The controller's finished listener is
+ * triggered once no targets remain, and its budget listener at most once until then.
+ * <br><br>
+ * Unlike the single-target controller, targets are not snapshotted and redrawn
+ * above their pulses, so that memory does not grow with the number of targets.
+ */
+public class MultiPulseController extends PulseController {
+
+    protected final PulseSimulationGroup<PulseTarget> targets = new PulseSimulationGroup<PulseTarget>();
+
+    protected final Paint targetPaint = new Paint();
+    protected final RectF drawBounds = new RectF();
+    protected final Rect targetBounds = new Rect();
+
+    public MultiPulseController(View parent) {
+        super(parent);
+
+        targetPaint.setAntiAlias(true);
+        targetPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    /**
+     * Add the target and begin its pulsing sequence. This is equivalent to
+     * {@link #addTarget(Activity, View)}, and does not affect other targets.
+     */
+    @Override
+    public PulseController attachTo(Activity activity, View pulseTarget) {
+        addTarget(activity, pulseTarget);
+
+        return this;
+    }
+
+    /**
+     * Add the region and begin its pulsing sequence. This is equivalent to
+     * {@link #addTarget(Rect)}, and does not affect other targets.
+     */
+    @Override
+    public PulseController attachTo(Rect boundaries) {
+        addTarget(boundaries);
+
+        return this;
+    }
+
+    /**
+     * Add a View to pulse behind and begin its pulsing sequence.
+     */
+    public PulseTarget addTarget(Activity activity, View view) {
+        if (view == null)
+            throw new RuntimeException("View supplied to MultiPulseController.addTarget cannot be null!");
+
+        observeLifecycle(activity);
+
+        return addTarget(view, findViewInParent(activity, view));
+    }
+
+    /**
+     * Add a region of the host, in its coordinates, to pulse behind and begin its pulsing sequence.
+     */
+    public PulseTarget addTarget(Rect boundaries) {
+        return addTarget(null, boundaries);
+    }
+
+    protected PulseTarget addTarget(View view, Rect boundaries) {
+        int strokeWidth = pulsingStrokeWidth < 1
+                ? computeDefaultStrokeWidth(boundaries)
+                : pulsingStrokeWidth;
+
+        PulseTarget target = new PulseTarget(view, boundaries, circlePathOverride, strokeWidth);
+
+        synchronized (lock) {
+            if (targets.isEmpty()) {
+                resetMetrics();
+                resetFrameRatePolicy();
+            }
+
+            target.simulation
+                    .copyConfiguration(simulation)
+                    .start(getTimelineNowMs());
+
+            targets.add(target);
+        }
+
+        registerIfNotPaused();
+
+        return target;
+    }
+
+    /**
+     * Immediately remove the target and its pulses, without triggering its finished listener.
+     */
+    public MultiPulseController removeTarget(PulseTarget target) {
+        synchronized (lock) {
+            if (!targets.remove(target))
+                return this;
+
+            // Republished so that the removed target's pulses are neither drawn nor left on screen
+            publishFrame(clock.nowMs());
+        }
+
+        safelyInvalidateParent(invalidationBounds);
+
+        return this;
+    }
+
+    public int getTargetCount() {
+        synchronized (lock) {
+            return targets.size();
+        }
+    }
+
+    @Override
+    public void update(long frameTimeMs) {
+        PulseMetrics metrics = this.metrics;
+        long updateStartNs = metrics == null ? 0 : System.nanoTime();
+        boolean budgetExceeded;
+        ArrayList<PulseTarget> finishedTargets;
+
+        synchronized (lock) {
+            budgetExceeded = targets.update(frameTimeMs);
+            finishedTargets = targets.drainFinished();
+
+            publishFrame(frameTimeMs);
+
+            if (metrics != null) {
+                metrics.recordBudgetExceeded(targets.getBudgetExceededSpawns());
+                metrics.recordUpdate(frameTimeMs, frameRatePolicy.getUpdateIntervalMs(), System.nanoTime() - updateStartNs, targets.getLivePulses());
+            }
+        }
+
+        safelyInvalidateParent(invalidationBounds);
+
+        if (budgetExceeded) {
+            dispatchBudgetExceeded(simulation.getBudgetPolicy());
+        }
+
+        if (finishedTargets != null) {
+            dispatchTargetsFinished(finishedTargets);
+        }
+    }
+
+    /**
+     * Trigger the finished listeners of the targets completed during the last update,
+     * on the main thread.
+     */
+    protected void dispatchTargetsFinished(final ArrayList<PulseTarget> finished) {
+        runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < finished.size(); i++) {
+                    finished.get(i).dispatchFinished();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void publishFrame(long frameTimeMs) {
+        PulseFrame frame = frameBuffer.beginWrite(frameTimeMs, getLivePulseCapacity());
+
+        for (int i = 0; i < targets.size(); i++) {
+            PulseTarget target = targets.get(i);
+            PulseBuffer buffer = target.simulation.getBuffer();
+            float maxScale = 0;
+
+            for (int j = 0; j < buffer.size(); j++) {
+                int slot = buffer.getSlot(j);
+
+                if (buffer.getAlpha(slot) < 1)
+                    continue;
+
+                frame.add(buffer.getScale(slot), buffer.getAlpha(slot), buffer.getColor(slot), target);
+
+                maxScale = Math.max(maxScale, buffer.getScale(slot));
+            }
+
+            if (maxScale == 0)
+                continue;
+
+            computePulseBounds(target.getBoundaries(), target.getStrokeWidth(), maxScale, targetBounds);
+
+            frame.getBounds().union(targetBounds);
+        }
+
+        invalidationBounds.set(lastPublishedBounds);
+        invalidationBounds.union(frame.getBounds());
+        lastPublishedBounds.set(frame.getBounds());
+
+        frame.getInvalidatedBounds().set(invalidationBounds);
+
+        frameBuffer.publish();
+    }
+
+    protected int getLivePulseCapacity() {
+        return targets.getLivePulseCapacity();
+    }
+
+    /**
+     * Draw every live pulse of every target with the shared Paint, as circles or
+     * rounded rectangles sized directly rather than through Canvas transformations.
+     */
+    @Override
+    public void draw(Canvas canvas) {
+        PulseMetrics metrics = this.metrics;
+        long drawStartNs = metrics == null ? 0 : System.nanoTime();
+
+        PulseFrame frame = frameBuffer.acquire();
+
+        if (isFrameVisible(canvas, frame)) {
+            for (int i = 0; i < frame.size(); i++) {
+                if (!isTargetPulseVisible(frame.getTarget(i), frame.getScale(i)))
+                    continue;
+
+                targetPaint.setColor(frame.getColor(i, pulsingColor));
+
+                drawTargetPulse(canvas, frame.getTarget(i), frame.getScale(i), frame.getAlpha(i));
+            }
+        }
+
+        if (metrics != null && 0 < frame.size()) {
+            metrics.recordDraw(System.nanoTime() - drawStartNs);
+        }
+
+        drawInvalidationDebugOverlay(canvas, frame);
+    }
+
+    /**
+     * @return true if the target's Pulse at the supplied scale intersects the clip
+     *      bounds retrieved by the last call to {@link #isFrameVisible(Canvas, PulseFrame)}
+     */
+    protected boolean isTargetPulseVisible(PulseTarget target, float scale) {
+        Rect boundaries = target.getBoundaries();
+        float strokeOutset = (target.getStrokeWidth() * scale) / 2;
+        float halfWidth = ((boundaries.right - boundaries.left) * scale) / 2 + strokeOutset;
+        float halfHeight = (Math.abs(boundaries.bottom - boundaries.top) * scale) / 2 + strokeOutset;
+
+        return target.getCenterX() - halfWidth < clipBounds.right
+                && clipBounds.left < target.getCenterX() + halfWidth
+                && target.getCenterY() - halfHeight < clipBounds.bottom
+                && clipBounds.top < target.getCenterY() + halfHeight;
+    }
+
+    protected void drawTargetPulse(Canvas canvas, PulseTarget target, float scale, int alpha) {
+        targetPaint.setAlpha(alpha);
+        targetPaint.setStrokeWidth(target.getStrokeWidth() * scale);
+
+        if (target.isCircle()) {
+            canvas.drawCircle(target.getCenterX(), target.getCenterY(), target.getRadius() * scale, targetPaint);
+
+            return;
+        }
+
+        Rect boundaries = target.getBoundaries();
+        float halfWidth = ((boundaries.right - boundaries.left) * scale) / 2;
+        float halfHeight = (Math.abs(boundaries.bottom - boundaries.top) * scale) / 2;
+        float cornerRadius = Pulse.DEFAULT_CORNER_RADIUS * scale;
+
+        drawBounds.set(
+                target.getCenterX() - halfWidth,
+                target.getCenterY() - halfHeight,
+                target.getCenterX() + halfWidth,
+                target.getCenterY() + halfHeight);
+
+        canvas.drawRoundRect(drawBounds, cornerRadius, cornerRadius, targetPaint);
+    }
+
+    @Override
+    protected void setBudgetHeld(boolean held) {
+        targets.setBudgetHeld(held);
+    }
+
+    @Override
+    protected void shiftTimeline(long deltaMs) {
+        targets.shift(deltaMs);
+    }
+
+    @Override
+    public boolean isRunning(long frameTimeMs) {
+        synchronized (lock) {
+            return !targets.isEmpty();
+        }
+    }
+
+    /**
+     * Suspend the creation of new Pulses for every current target.
+     */
+    @Override
+    public PulseController suspendPulseCreation() {
+        synchronized (lock) {
+            targets.suspendSpawning();
+        }
+
+        return this;
+    }
+
+    /**
+     * Immediately remove every target and its pulses. No finished listeners will be triggered.
+     */
+    @Override
+    protected PulseController stopPulsing(boolean releaseSnapshot) {
+        synchronized (lock) {
+            targets.stop();
+        }
+
+        return super.stopPulsing(releaseSnapshot);
+    }
+}
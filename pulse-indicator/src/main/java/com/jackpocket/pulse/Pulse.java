@@ -5,20 +5,24 @@ import android.graphics.CornerPathEffect;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.Rect;
+import android.os.SystemClock;
 import android.view.animation.Interpolator;
 
 public class Pulse {
 
-    private static final int MAX_ALPHA = 255;
+    public static final int MAX_ALPHA = PulseSimulation.MAX_ALPHA;
+    public static final float DEFAULT_CORNER_RADIUS = 10f;
 
     protected Paint paint;
     protected Interpolator alphaInterpolator;
     protected Interpolator scaleInterpolator;
 
-    protected Rect startBoundaries;
+    protected final Rect startBoundaries = new Rect();
     protected Path path;
+    protected Path customPath;
 
     protected boolean circlePathOverride = false;
+    protected float cornerRadius = DEFAULT_CORNER_RADIUS;
 
     protected float maxScale = 10f;
     protected float scale = 1f;
@@ -28,23 +32,116 @@ public class Pulse {
 
     protected int[] centers;
     protected int radius = 0;
+    protected float halfWidth = 0;
+    protected float halfHeight = 0;
+
+    protected int translationX = 0;
+    protected int translationY = 0;
+
+    protected int revision = 0;
 
     public Pulse(Rect startBoundaries){
         this(startBoundaries, true);
     }
 
     public Pulse(Rect startBoundaries, boolean circlePathOverride) {
-        this.startBoundaries = startBoundaries;
-        this.circlePathOverride = circlePathOverride;
+        this(startBoundaries, circlePathOverride, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * @param createdAt the creation time, in the {@link SystemClock#uptimeMillis()} time base
+     */
+    public Pulse(Rect startBoundaries, boolean circlePathOverride, long createdAt) {
         this.paint = buildPaint();
+        this.centers = new int[2];
+
+        reset(startBoundaries, circlePathOverride, createdAt);
+    }
+
+    /**
+     * Create a copy of the supplied Pulse's appearance and geometry.
+     *
+     * @see #copyFrom(Pulse)
+     */
+    public Pulse(Pulse source) {
+        this.paint = new Paint();
+        this.centers = new int[2];
+
+        copyFrom(source);
+    }
+
+    /**
+     * Re-initialize this Pulse for reuse, retaining its Paint and center
+     * buffers. The boundaries are copied, and the Path is shared through
+     * the {@link PulseGeometryCache}.
+     *
+     * @param createdAt the creation time, in the {@link SystemClock#uptimeMillis()} time base
+     */
+    public Pulse reset(Rect startBoundaries, boolean circlePathOverride, long createdAt) {
+        this.startBoundaries.set(startBoundaries);
+        this.circlePathOverride = circlePathOverride;
+        this.createdAt = createdAt;
+        this.scale = 1f;
+        this.customPath = null;
+
+        if (cornerRadius != DEFAULT_CORNER_RADIUS) {
+            setCornerRadius(DEFAULT_CORNER_RADIUS);
+        }
 
-        this.centers = new int[] {
-                startBoundaries.left + ((startBoundaries.right - startBoundaries.left) / 2),
-                Math.abs(startBoundaries.top + ((startBoundaries.bottom - startBoundaries.top) / 2))
-        };
+        this.centers[0] = PulseGeometryCache.getCenterX(startBoundaries);
+        this.centers[1] = PulseGeometryCache.getCenterY(startBoundaries);
+        this.radius = circlePathOverride ? PulseGeometryCache.getCircleRadius(startBoundaries) : 0;
+        this.halfWidth = (startBoundaries.right - startBoundaries.left) / 2f;
+        this.halfHeight = Math.abs(startBoundaries.bottom - startBoundaries.top) / 2f;
 
         this.path = buildPath();
-        this.createdAt = System.currentTimeMillis();
+        this.translationX = 0;
+        this.translationY = 0;
+        this.revision++;
+
+        return this;
+    }
+
+    /**
+     * Copy the appearance and geometry of another Pulse, sharing its (immutable) Path,
+     * e.g. to hand a snapshot of it to another thread.
+     */
+    public Pulse copyFrom(Pulse source) {
+        this.paint.set(source.paint);
+        this.startBoundaries.set(source.startBoundaries);
+        this.path = source.path;
+        this.customPath = source.customPath;
+        this.circlePathOverride = source.circlePathOverride;
+        this.cornerRadius = source.cornerRadius;
+        this.maxScale = source.maxScale;
+        this.scale = source.scale;
+        this.createdAt = source.createdAt;
+        this.duration = source.duration;
+        this.centers[0] = source.centers[0];
+        this.centers[1] = source.centers[1];
+        this.radius = source.radius;
+        this.halfWidth = source.halfWidth;
+        this.halfHeight = source.halfHeight;
+        this.translationX = source.translationX;
+        this.translationY = source.translationY;
+        this.revision = source.revision;
+
+        return this;
+    }
+
+    /**
+     * Move this Pulse without rebuilding its Path: the existing Path is drawn
+     * translated by the total movement since it was built.
+     */
+    public Pulse translate(int dx, int dy) {
+        this.startBoundaries.offset(dx, dy);
+        this.centers[0] += dx;
+        this.centers[1] += dy;
+        this.translationX += dx;
+        this.translationY += dy;
+        this.revision++;
+
+        return this;
     }
 
     protected Paint buildPaint() {
@@ -54,42 +151,44 @@ public class Pulse {
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeJoin(Paint.Join.ROUND);
         paint.setStrokeCap(Paint.Cap.ROUND);
-        paint.setPathEffect(new CornerPathEffect(10));
+        paint.setPathEffect(new CornerPathEffect(cornerRadius));
 
         return paint;
     }
 
+    /**
+     * @return the custom Path if set, else the shared, immutable Path for this Pulse's shape and boundaries
+     */
     protected Path buildPath(){
-        Path path = new Path();
-
-        if(circlePathOverride) {
-            int horizontal = startBoundaries.right - startBoundaries.left;
-            int vertical = Math.abs(startBoundaries.bottom - startBoundaries.top);
+        if (customPath != null)
+            return customPath;
 
-            this.radius = Math.min(horizontal, vertical) / 2;
-
-            path.addCircle(centers[0], centers[1], radius, Path.Direction.CW);
-        }
-        else {
-            path.moveTo(startBoundaries.left, startBoundaries.top);
-            path.lineTo(startBoundaries.right, startBoundaries.top);
-            path.lineTo(startBoundaries.right, startBoundaries.bottom);
-            path.lineTo(startBoundaries.left, startBoundaries.bottom);
-            path.lineTo(startBoundaries.left, startBoundaries.top);
-        }
-
-        return path;
+        return PulseGeometryCache.getInstance()
+                .getPath(circlePathOverride, startBoundaries, cornerRadius);
     }
 
     public void draw(Canvas canvas) {
+        draw(canvas, scale, paint);
+    }
+
+    /**
+     * Draw this Pulse's Path at the supplied scale with the supplied Paint, without
+     * modifying this Pulse.
+     */
+    public void draw(Canvas canvas, float scale, Paint paint) {
         canvas.save();
-        canvas.scale(scale, scale, centers[0], centers[1]);
+        canvas.translate(translationX, translationY);
+        canvas.scale(scale, scale, centers[0] - translationX, centers[1] - translationY);
         canvas.drawPath(path, paint);
         canvas.restore();
     }
 
     public void update() {
-        float percentCompleted = (System.currentTimeMillis() - createdAt) / (float) duration;
+        update(SystemClock.uptimeMillis());
+    }
+
+    public void update(long frameTimeMs) {
+        float percentCompleted = (frameTimeMs - createdAt) / (float) duration;
 
         if(alphaInterpolator != null) {
             this.paint.setAlpha((int) (MAX_ALPHA - (alphaInterpolator.getInterpolation(percentCompleted) * MAX_ALPHA)));
@@ -102,6 +201,19 @@ public class Pulse {
 
     public Pulse setPaint(Paint paint) {
         this.paint = paint;
+        this.revision++;
+
+        return this;
+    }
+
+    public Pulse setScale(float scale) {
+        this.scale = scale;
+
+        return this;
+    }
+
+    public Pulse setAlpha(int alpha) {
+        paint.setAlpha(alpha);
 
         return this;
     }
@@ -126,12 +238,45 @@ public class Pulse {
 
     public Pulse setCirclePathOverride(boolean circlePathOverride) {
         this.circlePathOverride = circlePathOverride;
+        this.radius = circlePathOverride ? PulseGeometryCache.getCircleRadius(startBoundaries) : 0;
+        this.path = buildPath();
+        this.translationX = 0;
+        this.translationY = 0;
+        this.revision++;
+
+        return this;
+    }
+
+    /**
+     * Set the corner radius of rectangular pulses. This is reset to
+     * {@link #DEFAULT_CORNER_RADIUS} whenever the Pulse is reset.
+     */
+    public Pulse setCornerRadius(float cornerRadius) {
+        this.cornerRadius = cornerRadius;
+        this.revision++;
+
+        paint.setPathEffect(new CornerPathEffect(cornerRadius));
+
+        return this;
+    }
+
+    /**
+     * Draw this Pulse along a custom outline (in the parent's coordinates, scaled about
+     * the boundaries' center) instead of a circle or rectangle. Null restores the default shape.
+     */
+    public Pulse setCustomPath(Path customPath) {
+        this.customPath = customPath;
+        this.path = buildPath();
+        this.translationX = 0;
+        this.translationY = 0;
+        this.revision++;
 
         return this;
     }
 
     public Pulse setMaxScale(float maxScale) {
         this.maxScale = maxScale;
+        this.revision++;
 
         return this;
     }
@@ -139,16 +284,98 @@ public class Pulse {
     public Pulse setColor(int color){
         paint.setColor(color);
 
+        this.revision++;
+
         return this;
     }
 
     public Pulse setStrokeWidth(int strokeWidth){
         paint.setStrokeWidth(strokeWidth);
 
+        this.revision++;
+
         return this;
     }
 
+    public Paint getPaint() {
+        return paint;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getCenterX() {
+        return centers[0];
+    }
+
+    public int getCenterY() {
+        return centers[1];
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return half the width of the unscaled boundaries
+     */
+    public float getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * @return half the height of the unscaled boundaries
+     */
+    public float getHalfHeight() {
+        return halfHeight;
+    }
+
+    /**
+     * @return the horizontal distance this Pulse has moved since its Path was built
+     */
+    public int getTranslationX() {
+        return translationX;
+    }
+
+    /**
+     * @return the vertical distance this Pulse has moved since its Path was built
+     */
+    public int getTranslationY() {
+        return translationY;
+    }
+
+    public float getMaxScale() {
+        return maxScale;
+    }
+
+    /**
+     * @return a counter incremented whenever this Pulse's appearance or geometry changes
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    public float getCornerRadius() {
+        return cornerRadius;
+    }
+
+    public boolean isCircle() {
+        return circlePathOverride;
+    }
+
+    /**
+     * @return true if this Pulse is drawn along a custom outline rather than a circle or rectangle
+     */
+    public boolean hasCustomPath() {
+        return customPath != null;
+    }
+
     public boolean isAlive(){
-        return System.currentTimeMillis() - createdAt < duration;
+        return isAlive(SystemClock.uptimeMillis());
+    }
+
+    public boolean isAlive(long frameTimeMs) {
+        return frameTimeMs - createdAt < duration;
     }
 }
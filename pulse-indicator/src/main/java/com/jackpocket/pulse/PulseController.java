@@ -3,15 +3,23 @@ package com.jackpocket.pulse;
 import android.app.Activity;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Display;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
+import com.jackpocket.pulse.renderers.PrimitivePulseRenderer;
+import com.jackpocket.pulse.renderers.PulseRenderer;
+
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class PulseController {
@@ -20,38 +28,96 @@ public class PulseController {
         public void onPulseEvent(View target);
     }
 
+    public interface PulseBudgetListener {
+
+        /**
+         * Called once per pulse sequence, when a live pulse budget is first exhausted
+         * and spawning begins to degrade according to the budget policy.
+         */
+        public void onPulseBudgetExceeded(PulseController controller, int budgetPolicy);
+    }
+
+    public static final int PAUSE_REASON_USER = 1;
+    public static final int PAUSE_REASON_DETACHED = 1 << 1;
+    public static final int PAUSE_REASON_HIDDEN = 1 << 2;
+    public static final int PAUSE_REASON_STOPPED = 1 << 3;
+
+    public static final int SHAPE_MODE_BOUNDS = 0;
+    public static final int SHAPE_MODE_OUTLINE = 1;
+    public static final int SHAPE_MODE_ALPHA_CONTOUR = 2;
+
     protected WeakReference<View> parent;
 
     protected WeakReference<View> pulseTarget = new WeakReference<View>(null);
     protected Bitmap pulseTargetDrawingCache;
+    protected final PulseTargetSnapshot pulseTargetSnapshot = new PulseTargetSnapshot();
     protected Rect pulseStartBoundaries = new Rect();
 
-    protected final ArrayList<Pulse> pulses = new ArrayList<Pulse>();
+    protected boolean targetTrackingEnabled = false;
+    protected ViewTreeObserver trackedViewTreeObserver;
+    protected final Rect trackedBoundaries = new Rect();
+    protected final int[] targetWindowLocation = new int[2];
+    protected final int[] parentWindowLocation = new int[2];
+
+    protected final ViewTreeObserver.OnPreDrawListener targetTracker = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            updateTrackedTarget();
+
+            return true;
+        }
+    };
+
+    protected final PulseSimulation simulation = new PulseSimulation();
+    protected final PulseFrameBuffer frameBuffer = new PulseFrameBuffer();
+    protected Pulse pulse;
+    protected PulseRenderer renderer = new PrimitivePulseRenderer();
+    protected PulseFrameRatePolicy frameRatePolicy = PulseFrameRatePolicy.matchDisplay();
+
+    protected PulseClock clock = UptimePulseClock.getInstance();
+    protected PulseScheduler scheduler = PulseScheduler.getInstance();
+
+    protected final Rect lastPublishedBounds = new Rect();
+    protected final Rect invalidationBounds = new Rect();
+
+    protected final Rect clipBounds = new Rect();
+    protected final Rect visibleBounds = new Rect();
+
+    protected Paint invalidationDebugPaint;
+
+    protected PulseMetrics metrics;
+    protected WeakReference<PulseMetrics.PulseMetricsListener> metricsListener;
 
     protected Interpolator alphaInterpolator = new AccelerateInterpolator();
     protected Interpolator scaleInterpolator = new LinearInterpolator();
 
-    protected long durationMs = 1500;
-    protected long pulseLifeSpanMs = 900;
-    protected long respawnRateMs = 300;
-    protected boolean respawnAllowed = true;
-
-    protected float pulseMaxScale = 3;
+    protected int interpolatorTableResolution = InterpolatorTable.DEFAULT_RESOLUTION;
 
-    protected long startTimeMs = 0;
-    protected long lastAddedMs = 0;
     protected boolean circlePathOverride = true;
+    protected int shapeMode = SHAPE_MODE_BOUNDS;
+
+    protected final PulseShapeExtractor.ShapeCallback shapeCallback = new PulseShapeExtractor.ShapeCallback() {
+        @Override
+        public void onShapeExtracted(View target, PulseShape shape) {
+            applyTargetShape(target, shape);
+        }
+    };
 
     protected int pulsingColor;
 
     protected int pulsingStrokeWidth = -1;
     protected int defaultPulsingStrokeWidth = 1;
 
-    protected PulseTask pulseTask;
-
     protected WeakReference<PulseEventListener> finishedListener;
+    protected WeakReference<PulseBudgetListener> budgetListener;
+
+    protected int pauseReasons = 0;
+    protected long pausedAtMs = 0;
+    protected PulseLifecycleObserver lifecycleObserver;
 
-    private final Object lock = new Object();
+    protected final Object lock = new Object();
+
+    protected final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
 
     /**
      * @param parent the non-null View triggering the controller's drawing (i.e. the PulseLayout)
@@ -66,25 +132,31 @@ public class PulseController {
                 .getResources()
                 .getBoolean(R.bool.pulse__circle_path_default);
 
-        this.pulseMaxScale = parent.getContext()
+        this.simulation.setMaxScale(parent.getContext()
                 .getResources()
-                .getInteger(R.integer.pulse__max_scale_percent_default) / 100f;
+                .getInteger(R.integer.pulse__max_scale_percent_default) / 100f);
 
-        this.durationMs = parent.getContext()
+        this.simulation.setDurationMs(parent.getContext()
                 .getResources()
-                .getInteger(R.integer.pulse__duration_default);
+                .getInteger(R.integer.pulse__duration_default));
 
-        this.pulseLifeSpanMs = parent.getContext()
+        this.simulation.setLifeSpanMs(parent.getContext()
                 .getResources()
-                .getInteger(R.integer.pulse__lifespan_default);
+                .getInteger(R.integer.pulse__lifespan_default));
 
-        this.respawnRateMs = parent.getContext()
+        this.simulation.setRespawnRateMs(parent.getContext()
                 .getResources()
-                .getInteger(R.integer.pulse__respawn_rate_default);
+                .getInteger(R.integer.pulse__respawn_rate_default));
 
         this.pulsingColor = parent.getContext()
                 .getResources()
                 .getColor(R.color.pulse__color);
+
+        this.interpolatorTableResolution = parent.getContext()
+                .getResources()
+                .getInteger(R.integer.pulse__interpolator_table_resolution_default);
+
+        bakeInterpolators();
     }
 
     /**
@@ -130,75 +202,363 @@ public class PulseController {
 
         this.pulseTarget = new WeakReference<View>(pulseTarget);
         this.pulseStartBoundaries = findViewInParent(activity, pulseTarget);
-        this.pulseTargetDrawingCache = getDrawingCache(pulseTarget);
-        this.defaultPulsingStrokeWidth = (int) Math.max(5, Math.abs((pulseStartBoundaries.right - pulseStartBoundaries.left)) * .065);
-        this.startTimeMs = System.currentTimeMillis();
-        this.respawnAllowed = true;
 
-        cancelPulseTask();
+        resetMetrics();
+        resetFrameRatePolicy();
+        refreshTargetSnapshot(pulseTarget);
+
+        observeLifecycle(activity);
+
+        startPulsing();
+
+        requestTargetShape(pulseTarget);
+
+        if (targetTrackingEnabled) {
+            startTrackingTarget();
+        }
+
+        return this;
+    }
+
+    /**
+     * Begin the pulsing sequence behind a region of the parent, in its coordinates,
+     * without a target View to snapshot or an Activity to observe.
+     *
+     * @param boundaries the non-null region to pulse behind
+     */
+    public PulseController attachTo(Rect boundaries) {
+        if (boundaries == null)
+            throw new RuntimeException("Rect supplied to PulseController.attachTo cannot be null!");
+
+        this.pulseTarget = new WeakReference<View>(null);
+        this.pulseStartBoundaries = new Rect(boundaries);
+
+        resetMetrics();
+        resetFrameRatePolicy();
+        refreshTargetSnapshot(null);
 
-        this.pulseTask = new PulseTask(this)
-            .setFinishedListener(new Runnable() {
-                public void run() {
-                    finishPulsing();
-                }
-            });
+        return startPulsing();
+    }
+
+    protected PulseController startPulsing() {
+        this.defaultPulsingStrokeWidth = computeDefaultStrokeWidth(pulseStartBoundaries);
+
+        synchronized (lock) {
+            long startTimeMs = getTimelineNowMs();
 
-        this.pulseTask.start();
+            this.simulation.start(startTimeMs);
+            this.pulse = obtainPulse(startTimeMs);
+
+            publishFrame(startTimeMs);
+        }
+
+        safelyInvalidateParent();
+
+        registerIfNotPaused();
 
         return this;
     }
 
+    /**
+     * Request the target's outline or contour when not pulsing within its bounds. The
+     * Pulse keeps its default shape until the extracted shape is available.
+     */
+    protected void requestTargetShape(View target) {
+        if (shapeMode == SHAPE_MODE_BOUNDS)
+            return;
+
+        PulseShapeExtractor.getInstance()
+                .extract(target, shapeMode, pulseTargetDrawingCache, shapeCallback);
+    }
+
+    protected void applyTargetShape(View target, PulseShape shape) {
+        if (this.pulseTarget.get() != target)
+            return;
+
+        synchronized (lock) {
+            if (pulse == null)
+                return;
+
+            pulse.setCirclePathOverride(false);
+
+            if (shape.isRoundRect()) {
+                pulse.setCornerRadius(shape.getCornerRadius());
+            }
+            else {
+                pulse.setCustomPath(shape.obtainPath(pulseStartBoundaries));
+            }
+
+            publishFrame(getTimelineNowMs());
+        }
+
+        safelyInvalidateParent();
+    }
+
+    /**
+     * @return the current time, or the time at which the controller was paused.
+     *      Must be called while holding the lock.
+     */
+    protected long getTimelineNowMs() {
+        return pauseReasons == 0 ? clock.nowMs() : pausedAtMs;
+    }
+
+    protected void registerIfNotPaused() {
+        PulseScheduler scheduler = this.scheduler;
+
+        if (scheduler == null || isPaused())
+            return;
+
+        scheduler.register(this);
+    }
+
+    protected void unregisterFromScheduler() {
+        PulseScheduler scheduler = this.scheduler;
+
+        if (scheduler == null)
+            return;
+
+        scheduler.unregister(this);
+    }
+
+    /**
+     * Pause the controller while the supplied Activity is stopped, replacing
+     * any Activity previously being observed.
+     */
+    protected void observeLifecycle(Activity activity) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+            return;
+
+        if (lifecycleObserver != null && lifecycleObserver.isObserving(activity))
+            return;
+
+        if (lifecycleObserver != null) {
+            lifecycleObserver.unregister();
+        }
+
+        this.lifecycleObserver = new PulseLifecycleObserver(activity, this);
+        this.lifecycleObserver.register();
+    }
+
     protected Rect findViewInParent(Activity activity, View view) {
-        Rect viewRect = getWindowLocation(activity, view);
+        Rect viewRect = new Rect();
 
-        stripParentPositions(activity, viewRect);
+        resolveBoundariesInParent(view, viewRect);
 
         return viewRect;
     }
 
-    protected void stripParentPositions(Activity activity, Rect rect) {
-        Rect parentRect = getWindowLocation(activity, this.parent.get());
+    /**
+     * Resolve the view's boundaries relative to the parent, without allocating. As both
+     * window locations share the same origin, no status bar offset needs to be removed.
+     *
+     * @return false if the parent is no longer available
+     */
+    protected boolean resolveBoundariesInParent(View view, Rect out) {
+        View parent = this.parent.get();
+
+        if (parent == null)
+            return false;
+
+        view.getLocationInWindow(targetWindowLocation);
+        parent.getLocationInWindow(parentWindowLocation);
+
+        int left = targetWindowLocation[0] - parentWindowLocation[0];
+        int top = targetWindowLocation[1] - parentWindowLocation[1];
 
-        rect.left = rect.left - parentRect.left;
-        rect.top = rect.top - parentRect.top;
-        rect.right = rect.right - parentRect.left;
-        rect.bottom = rect.bottom - parentRect.top;
+        out.set(left, top, left + view.getWidth(), top + view.getHeight());
+
+        return true;
     }
 
-    protected Rect getWindowLocation(Activity activity, View view) {
-        int[] windowLocation = new int[2];
+    protected void startTrackingTarget() {
+        View parent = this.parent.get();
+
+        if (parent == null)
+            return;
 
-        Rect statusBar = new Rect();
+        stopTrackingTarget();
 
-        activity.getWindow()
-                .getDecorView()
-                .getWindowVisibleDisplayFrame(statusBar);
+        this.trackedViewTreeObserver = parent.getViewTreeObserver();
+        this.trackedViewTreeObserver.addOnPreDrawListener(targetTracker);
+    }
 
-        view.getLocationInWindow(windowLocation);
+    protected void stopTrackingTarget() {
+        ViewTreeObserver observer = this.trackedViewTreeObserver;
 
-        windowLocation[1] = windowLocation[1] - statusBar.height(); // Stupid statusbar ruins the positioning
+        if (observer == null)
+            return;
 
-        Rect rect = new Rect();
-        rect.left = windowLocation[0];
-        rect.top = windowLocation[1];
-        rect.right = windowLocation[0] + view.getWidth();
-        rect.bottom = windowLocation[1] + view.getHeight();
+        if (observer.isAlive()) {
+            observer.removeOnPreDrawListener(targetTracker);
+        }
+        else {
+            View parent = this.parent.get();
 
-        return rect;
+            if (parent != null) {
+                parent.getViewTreeObserver()
+                        .removeOnPreDrawListener(targetTracker);
+            }
+        }
+
+        this.trackedViewTreeObserver = null;
     }
 
-    public void draw(Canvas canvas) {
-        List<Pulse> pulsesToDraw;
+    /**
+     * Called before each draw while tracking. The target's boundaries are resolved into a
+     * reused Rect, and the Pulse is only modified if they differ from the current ones.
+     */
+    protected void updateTrackedTarget() {
+        View target = this.pulseTarget.get();
+
+        if (target == null || !resolveBoundariesInParent(target, trackedBoundaries))
+            return;
+
+        int dx = trackedBoundaries.left - pulseStartBoundaries.left;
+        int dy = trackedBoundaries.top - pulseStartBoundaries.top;
+
+        boolean resized = trackedBoundaries.width() != pulseStartBoundaries.width()
+                || trackedBoundaries.height() != pulseStartBoundaries.height();
 
+        if (resized) {
+            onTargetResized(target);
+        }
+        else if (dx != 0 || dy != 0) {
+            onTargetMoved(dx, dy);
+        }
+    }
+
+    /**
+     * Translate the existing Pulse geometry and snapshot position to follow the target.
+     */
+    protected void onTargetMoved(int dx, int dy) {
         synchronized (lock) {
-            pulsesToDraw = new ArrayList<Pulse>(pulses);
+            pulseStartBoundaries.offset(dx, dy);
+
+            if (pulse != null) {
+                pulse.translate(dx, dy);
+            }
+
+            publishFrame(clock.nowMs());
+        }
+
+        safelyInvalidateParent(invalidationBounds);
+    }
+
+    /**
+     * Rebuild the Pulse geometry, snapshot and shape for the target's new size.
+     */
+    protected void onTargetResized(View target) {
+        refreshTargetSnapshot(target);
+
+        synchronized (lock) {
+            pulseStartBoundaries.set(trackedBoundaries);
+
+            this.defaultPulsingStrokeWidth = computeDefaultStrokeWidth(pulseStartBoundaries);
+
+            if (pulse != null) {
+                configurePulse(pulse.reset(pulseStartBoundaries, circlePathOverride, clock.nowMs()));
+            }
+
+            publishFrame(clock.nowMs());
+        }
+
+        requestTargetShape(target);
+
+        safelyInvalidateParent(invalidationBounds);
+    }
+
+    protected void resetMetrics() {
+        PulseMetrics metrics = this.metrics;
+
+        if (metrics == null)
+            return;
+
+        metrics.reset();
+        metrics.setExpectedFrameIntervalMs(getDisplayFrameIntervalMs());
+    }
+
+    protected void resetFrameRatePolicy() {
+        View parent = this.parent.get();
+
+        frameRatePolicy.reset(parent == null ? null : parent.getContext(), getDisplayFrameIntervalMs());
+    }
+
+    /**
+     * Called by the {@link PulseScheduler} on each display frame.
+     *
+     * @return true if {@link #update(long)} should be called for this frame
+     */
+    protected boolean shouldUpdate(long frameTimeMs) {
+        return frameRatePolicy.shouldUpdate(frameTimeMs);
+    }
+
+    /**
+     * Replace the snapshot drawn above the Pulses with one of the target, or none if null.
+     * <br><br>
+     * The capture may recycle or redraw the previous snapshot's Bitmap, so both happen while
+     * holding the lock, which a frame drawn on another thread is never drawn without.
+     */
+    protected void refreshTargetSnapshot(View target) {
+        synchronized (lock) {
+            this.pulseTargetDrawingCache = target == null
+                    ? null
+                    : captureTargetSnapshot(target);
         }
+    }
+
+    protected Bitmap captureTargetSnapshot(View target) {
+        PulseMetrics metrics = this.metrics;
 
-        for (Pulse pulse : pulsesToDraw) {
-            pulse.draw(canvas);
+        if (metrics == null)
+            return pulseTargetSnapshot.capture(target);
+
+        long captureStartNs = System.nanoTime();
+
+        Bitmap snapshot = pulseTargetSnapshot.capture(target);
+
+        metrics.recordSnapshotCapture(System.nanoTime() - captureStartNs);
+
+        return snapshot;
+    }
+
+    /**
+     * @return the refresh interval of the parent's display, or that of a 60 Hz display if unknown
+     */
+    protected float getDisplayFrameIntervalMs() {
+        View parent = this.parent.get();
+
+        if (parent == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1)
+            return 1000 / 60f;
+
+        Display display = parent.getDisplay();
+
+        if (display == null || display.getRefreshRate() < 1)
+            return 1000 / 60f;
+
+        return 1000 / display.getRefreshRate();
+    }
+
+    /**
+     * Draw the most recently published {@link PulseFrame}. This never blocks
+     * on, or copies from, the state being modified by {@link #update(long)}.
+     */
+    public void draw(Canvas canvas) {
+        PulseMetrics metrics = this.metrics;
+        long drawStartNs = metrics == null ? 0 : System.nanoTime();
+
+        PulseFrame frame = frameBuffer.acquire();
+        Pulse framePulse = frame.getPulse();
+
+        if (framePulse != null && isFrameVisible(canvas, frame)) {
+            renderer.draw(canvas, framePulse, frame);
         }
 
+        if (metrics != null && 0 < frame.size()) {
+            metrics.recordDraw(System.nanoTime() - drawStartNs);
+        }
+
+        drawInvalidationDebugOverlay(canvas, frame);
+
         if (pulseTargetDrawingCache == null)
             return;
 
@@ -209,60 +569,225 @@ public class PulseController {
                 null);
     }
 
-    protected Bitmap getDrawingCache(View view) {
-        view.setDrawingCacheEnabled(true);
-        view.buildDrawingCache();
-
-        Bitmap bitmap = view.getDrawingCache();
+    /**
+     * @return true if any of the frame's Pulses fall within the Canvas' clip
+     */
+    protected boolean isFrameVisible(Canvas canvas, PulseFrame frame) {
+        return 0 < frame.size()
+                && canvas.getClipBounds(clipBounds)
+                && Rect.intersects(clipBounds, frame.getBounds());
+    }
 
-        if (bitmap != null) {
-            bitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight());
-        }
+    protected void drawInvalidationDebugOverlay(Canvas canvas, PulseFrame frame) {
+        Paint debugPaint = this.invalidationDebugPaint;
 
-        view.setDrawingCacheEnabled(false);
+        if (debugPaint == null || frame.getInvalidatedBounds().isEmpty())
+            return;
 
-        return bitmap;
+        canvas.drawRect(frame.getInvalidatedBounds(), debugPaint);
     }
 
     public void update() {
-        if (!isRunning())
+        update(clock.nowMs());
+    }
+
+    /**
+     * Advance all active Pulses to the supplied frame time. This may be called off the
+     * main thread (e.g. by a {@link PulseScheduler} running on another Looper), in which
+     * case the parent is invalidated via {@link View#postInvalidate()}.
+     *
+     * @param frameTimeMs the frame time, in the time base of the controller's {@link PulseClock}
+     */
+    public void update(long frameTimeMs) {
+        if (!isRunning(frameTimeMs))
             return;
 
-        addNewPulseIfPossible();
+        PulseMetrics metrics = this.metrics;
+        long updateStartNs = metrics == null ? 0 : System.nanoTime();
+
+        boolean budgetExceeded;
 
         synchronized (lock) {
-            for (Pulse pulse : pulses) {
-                pulse.update();
-            }
+            int budgetExceededCount = simulation.getBudgetExceededCount();
+
+            addNewPulseIfPossible(frameTimeMs);
+
+            budgetExceeded = recordBudgetExceeded(simulation, budgetExceededCount);
+
+            simulation.advance(frameTimeMs);
 
-            for (int i = pulses.size() - 1; 0 <= i; i--) {
-                if (pulses.get(i).isAlive())
-                    continue;
+            publishFrame(frameTimeMs);
 
-                pulses.remove(i);
+            if (metrics != null) {
+                metrics.recordUpdate(frameTimeMs, frameRatePolicy.getUpdateIntervalMs(), System.nanoTime() - updateStartNs, simulation.getBuffer().size());
             }
         }
 
-        safelyInvalidateParent();
+        safelyInvalidateParent(invalidationBounds);
+
+        if (budgetExceeded) {
+            dispatchBudgetExceeded(simulation.getBudgetPolicy());
+        }
     }
 
-    protected void addNewPulseIfPossible() {
-        synchronized (lock) {
-            if (isPulseAddingAvailable()) {
-                this.lastAddedMs = System.currentTimeMillis();
-                this.pulses.add(buildPulse());
+    /**
+     * Record any spawns the simulation's budget policy was applied to since the previous count.
+     * Must be called while holding the lock.
+     *
+     * @return true if the budget was exhausted for the first time in the simulation's sequence
+     */
+    protected boolean recordBudgetExceeded(PulseSimulation simulation, int previousExceededCount) {
+        int exceeded = simulation.getBudgetExceededCount() - previousExceededCount;
+
+        if (exceeded < 1)
+            return false;
+
+        PulseMetrics metrics = this.metrics;
+
+        if (metrics != null) {
+            metrics.recordBudgetExceeded(exceeded);
+        }
+
+        return previousExceededCount == 0;
+    }
+
+    protected void dispatchBudgetExceeded(final int budgetPolicy) {
+        if (budgetListener == null)
+            return;
+
+        final PulseBudgetListener listener = this.budgetListener.get();
+
+        if (listener == null)
+            return;
+
+        runOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                listener.onPulseBudgetExceeded(PulseController.this, budgetPolicy);
             }
+        });
+    }
+
+    /**
+     * Run immediately when called on the main thread, or post to it otherwise, e.g. for
+     * listeners of controllers updated on a render thread.
+     */
+    protected void runOnMainThread(Runnable runnable) {
+        if (isOnMainThread()) {
+            runnable.run();
+
+            return;
+        }
+
+        mainThreadHandler.post(runnable);
+    }
+
+    protected boolean isOnMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * Snapshot the live Pulses into the write frame and hand it to the drawing side.
+     * Must be called while holding the lock.
+     */
+    protected void publishFrame(long frameTimeMs) {
+        PulseBuffer pulseBuffer = simulation.getBuffer();
+        PulseFrame frame = frameBuffer.beginWrite(frameTimeMs, pulseBuffer.capacity());
+        float maxScale = 0;
+
+        // Renderers draw from the frame's copy, never the Pulse being modified here
+        frame.setPulse(pulse);
+
+        for (int i = 0; i < pulseBuffer.size(); i++) {
+            int slot = pulseBuffer.getSlot(i);
+
+            // Fully transparent Pulses are neither drawn nor included in the invalidated region
+            if (pulseBuffer.getAlpha(slot) < 1)
+                continue;
+
+            frame.add(pulseBuffer.getScale(slot), pulseBuffer.getAlpha(slot), pulseBuffer.getColor(slot), null);
+
+            maxScale = Math.max(maxScale, pulseBuffer.getScale(slot));
+        }
+
+        if (0 < frame.size()) {
+            computePulseBounds(maxScale, frame.getBounds());
+        }
+
+        // The previous bounds must be included so that shrinking or expiring Pulses are cleared
+        invalidationBounds.set(lastPublishedBounds);
+        invalidationBounds.union(frame.getBounds());
+        lastPublishedBounds.set(frame.getBounds());
+
+        frame.getInvalidatedBounds().set(invalidationBounds);
+
+        frameBuffer.publish();
+    }
+
+    /**
+     * Calculate the area covered by a Pulse drawn at the supplied scale,
+     * including its (equally scaled) stroke.
+     */
+    protected void computePulseBounds(float scale, Rect out) {
+        computePulseBounds(pulseStartBoundaries, getEffectiveStrokeWidth(), scale, out);
+    }
+
+    protected void computePulseBounds(Rect startBoundaries, int strokeWidth, float scale, Rect out) {
+        float strokeOutset = (strokeWidth * scale) / 2 + 1;
+        float halfWidth = ((startBoundaries.right - startBoundaries.left) * scale) / 2 + strokeOutset;
+        float halfHeight = (Math.abs(startBoundaries.bottom - startBoundaries.top) * scale) / 2 + strokeOutset;
+
+        int centerX = PulseGeometryCache.getCenterX(startBoundaries);
+        int centerY = PulseGeometryCache.getCenterY(startBoundaries);
+
+        out.set(
+                (int) Math.floor(centerX - halfWidth),
+                (int) Math.floor(centerY - halfHeight),
+                (int) Math.ceil(centerX + halfWidth),
+                (int) Math.ceil(centerY + halfHeight));
+    }
+
+    /**
+     * Must be called while holding the lock.
+     */
+    protected void addNewPulseIfPossible(long frameTimeMs) {
+        if (simulation.spawnIfAvailable(frameTimeMs)) {
+            configurePulse(pulse);
         }
     }
 
-    protected Pulse buildPulse() {
-        return new Pulse(pulseStartBoundaries, circlePathOverride)
-                .setColor(pulsingColor)
-                .setStrokeWidth(pulsingStrokeWidth < 1 ? defaultPulsingStrokeWidth : pulsingStrokeWidth)
+    /**
+     * The single Pulse is used to draw every live entry of the {@link PulseBuffer},
+     * so it is reused across attachments and only built the first time.
+     */
+    protected Pulse obtainPulse(long frameTimeMs) {
+        if (pulse == null)
+            return buildPulse(frameTimeMs);
+
+        pulse.reset(pulseStartBoundaries, circlePathOverride, frameTimeMs);
+
+        return configurePulse(pulse);
+    }
+
+    protected Pulse buildPulse(long frameTimeMs) {
+        return configurePulse(new Pulse(pulseStartBoundaries, circlePathOverride, frameTimeMs));
+    }
+
+    protected Pulse configurePulse(Pulse pulse) {
+        return pulse.setColor(pulsingColor)
+                .setStrokeWidth(getEffectiveStrokeWidth())
                 .setAlphaInterpolator(alphaInterpolator)
                 .setScaleInterpolator(scaleInterpolator)
-                .setDuration(pulseLifeSpanMs)
-                .setMaxScale(pulseMaxScale);
+                .setDuration(simulation.getLifeSpanMs())
+                .setMaxScale(simulation.getMaxScale());
+    }
+
+    protected int getEffectiveStrokeWidth() {
+        return pulsingStrokeWidth < 1 ? defaultPulsingStrokeWidth : pulsingStrokeWidth;
+    }
+
+    protected int computeDefaultStrokeWidth(Rect startBoundaries) {
+        return (int) Math.max(5, Math.abs((startBoundaries.right - startBoundaries.left)) * .065);
     }
 
     protected void safelyInvalidateParent() {
@@ -271,26 +796,65 @@ public class PulseController {
         if (parent == null)
             return;
 
+        if (!isOnMainThread()) {
+            parent.postInvalidate();
+
+            return;
+        }
+
         parent.invalidate();
     }
 
-    public boolean isRunning() {
-        synchronized (lock) {
-            return System.currentTimeMillis() - startTimeMs < durationMs
-                    || 0 < pulses.size();
+    /**
+     * Invalidate only the supplied region of the parent, if any of it is visible on screen.
+     * <br><br>
+     * Regions scrolled or clipped entirely off screen are skipped, so that no drawing occurs
+     * until a Pulse becomes visible again. Off the main thread, where the View hierarchy
+     * may not be queried, the region is always invalidated via {@link View#postInvalidate(int, int, int, int)}.
+     */
+    protected void safelyInvalidateParent(Rect dirty) {
+        View parent = this.parent.get();
+
+        if (parent == null || dirty.isEmpty())
+            return;
+
+        if (!isOnMainThread()) {
+            parent.postInvalidate(dirty.left, dirty.top, dirty.right, dirty.bottom);
+
+            return;
         }
+
+        if (!isVisibleInParent(parent, dirty))
+            return;
+
+        parent.invalidate(dirty.left, dirty.top, dirty.right, dirty.bottom);
     }
 
-    protected boolean isPulseAddingAvailable() {
-        return respawnAllowed
-                && System.currentTimeMillis() - startTimeMs < durationMs
-                && respawnRateMs < System.currentTimeMillis() - lastAddedMs;
+    protected boolean isVisibleInParent(View parent, Rect region) {
+        return parent.getLocalVisibleRect(visibleBounds)
+                && Rect.intersects(visibleBounds, region);
+    }
+
+    public boolean isRunning() {
+        return isRunning(clock.nowMs());
+    }
+
+    public boolean isRunning(long frameTimeMs) {
+        synchronized (lock) {
+            return simulation.isRunning(frameTimeMs);
+        }
     }
 
     protected void finishPulsing() {
         View pulseTarget = this.pulseTarget.get();
 
-        stopPulsing();
+        // Retain the target snapshot so re-attaching to a target of the same size can reuse its Bitmap
+        stopPulsing(false);
+
+        dispatchMetrics();
+
+        if (finishedListener == null)
+            return;
 
         final PulseEventListener completionCallback = this.finishedListener.get();
 
@@ -299,16 +863,47 @@ public class PulseController {
         }
     }
 
+    protected void dispatchMetrics() {
+        if (metrics == null || metricsListener == null)
+            return;
+
+        final PulseMetrics.PulseMetricsListener listener = this.metricsListener.get();
+
+        if (listener != null) {
+            listener.onPulseMetrics(this, metrics.copy());
+        }
+    }
+
     /**
      * Immediately stop all current and new Pulses from being created.
      * <br><br>
-     * Completion callbacks will not be triggered.
+     * Completion callbacks will not be triggered, and the target's
+     * snapshot Bitmap is released.
      */
     public PulseController stopPulsing() {
-        cancelPulseTask();
+        return stopPulsing(true);
+    }
+
+    /**
+     * @param releaseSnapshot true to immediately recycle the target's snapshot Bitmap
+     */
+    protected PulseController stopPulsing(boolean releaseSnapshot) {
+        unregisterFromScheduler();
+        stopTrackingTarget();
 
         synchronized (lock) {
-            this.pulses.clear();
+            this.simulation.stop();
+
+            publishFrame(clock.nowMs());
+
+            // Released while locked, so that a frame drawn on another thread never draws a recycled Bitmap
+            this.pulseTargetDrawingCache = null;
+
+            if (releaseSnapshot) {
+                pulseTargetSnapshot.release();
+            }
+
+            renderer.release();
         }
 
         this.pulseTarget = new WeakReference<View>(null);
@@ -318,12 +913,111 @@ public class PulseController {
         return this;
     }
 
-    protected void cancelPulseTask() {
-        if (pulseTask == null)
-            return;
+    /**
+     * Pause the pulsing sequence until {@link #resume()} is called. While paused the
+     * controller is removed from the {@link PulseScheduler}, and the current frame
+     * remains drawn.
+     */
+    public PulseController pause() {
+        return pause(PAUSE_REASON_USER);
+    }
+
+    /**
+     * Resume a sequence paused via {@link #pause()}. The sequence continues where it
+     * left off, unless it is still paused for another reason (e.g. its host is detached).
+     */
+    public PulseController resume() {
+        return resume(PAUSE_REASON_USER);
+    }
+
+    /**
+     * Pause for the supplied reason, e.g. {@link #PAUSE_REASON_DETACHED}. The controller
+     * remains paused until every reason it was paused for has been resumed.
+     */
+    public PulseController pause(int reason) {
+        synchronized (lock) {
+            boolean alreadyPaused = pauseReasons != 0;
+
+            this.pauseReasons |= reason;
+
+            if (alreadyPaused)
+                return this;
+
+            this.pausedAtMs = clock.nowMs();
+
+            setBudgetHeld(false);
+        }
+
+        unregisterFromScheduler();
+
+        return this;
+    }
+
+    /**
+     * Resume from a pause for the supplied reason. Once no reasons remain, every
+     * timestamp is shifted by the time spent paused and the sequence continues.
+     */
+    public PulseController resume(int reason) {
+        synchronized (lock) {
+            if ((pauseReasons & reason) == 0)
+                return this;
 
-        this.pulseTask.cancel();
-        this.pulseTask = null;
+            this.pauseReasons &= ~reason;
+
+            if (pauseReasons != 0)
+                return this;
+
+            long pausedMs = clock.nowMs() - pausedAtMs;
+
+            shiftTimeline(pausedMs);
+            shiftFramePacing(pausedMs);
+            setBudgetHeld(true);
+        }
+
+        if (isRunning()) {
+            registerIfNotPaused();
+        }
+
+        return this;
+    }
+
+    /**
+     * Release the live Pulses' units of their shared {@link PulseBudget} while paused, so
+     * that controllers detached or destroyed mid-sequence never starve other controllers.
+     * Must be called while holding the lock.
+     */
+    protected void setBudgetHeld(boolean held) {
+        if (held)
+            simulation.reacquireBudget();
+        else
+            simulation.releaseHeldBudget();
+    }
+
+    /**
+     * Must be called while holding the lock.
+     */
+    protected void shiftTimeline(long deltaMs) {
+        simulation.shift(deltaMs);
+    }
+
+    /**
+     * Shift the previous frame's time recorded by the frame rate policy and metrics, so
+     * that the first frame after resuming isn't counted as late. Must be called while holding the lock.
+     */
+    protected void shiftFramePacing(long deltaMs) {
+        frameRatePolicy.shift(deltaMs);
+
+        PulseMetrics metrics = this.metrics;
+
+        if (metrics != null) {
+            metrics.shift(deltaMs);
+        }
+    }
+
+    public boolean isPaused() {
+        synchronized (lock) {
+            return pauseReasons != 0;
+        }
     }
 
     /**
@@ -332,29 +1026,106 @@ public class PulseController {
      * finish normally.
      */
     public PulseController suspendPulseCreation() {
-        this.respawnAllowed = false;
+        synchronized (lock) {
+            this.simulation.suspendSpawning();
+        }
 
         return this;
     }
 
     public PulseController setAlphaInterpolator(Interpolator alphaInterpolator) {
         this.alphaInterpolator = alphaInterpolator;
+        this.simulation.setAlphaCurve(bakeInterpolator(alphaInterpolator));
 
         return this;
     }
 
     public PulseController setScaleInterpolator(Interpolator scaleInterpolator) {
         this.scaleInterpolator = scaleInterpolator;
+        this.simulation.setScaleCurve(bakeInterpolator(scaleInterpolator));
 
         return this;
     }
 
+    /**
+     * Set the number of segments the alpha and scale Interpolators are sampled into
+     * when baked into {@link InterpolatorTable}s. Values below 1 disable baking, and
+     * the supplied Interpolators will be evaluated directly on every frame.
+     */
+    public PulseController setInterpolatorTableResolution(int interpolatorTableResolution) {
+        this.interpolatorTableResolution = interpolatorTableResolution;
+
+        bakeInterpolators();
+
+        return this;
+    }
+
+    protected void bakeInterpolators() {
+        this.simulation.setAlphaCurve(bakeInterpolator(alphaInterpolator));
+        this.simulation.setScaleCurve(bakeInterpolator(scaleInterpolator));
+    }
+
+    protected PulseCurve bakeInterpolator(Interpolator interpolator) {
+        if (interpolator == null)
+            return null;
+
+        PulseCurve curve = new InterpolatorCurve(interpolator);
+
+        if (interpolatorTableResolution < 1)
+            return curve;
+
+        return new InterpolatorTable(curve, interpolatorTableResolution);
+    }
+
     public PulseController setDuration(long duration, TimeUnit unit) {
         return setDurationMs(unit.toMillis(duration));
     }
 
+    /**
+     * Spawn Pulses according to a compiled {@link PulseTimeline} instead of the respawn
+     * rate and duration, or null to restore them. Timelines are immutable and may be
+     * shared between controllers. This takes effect on the next attachment.
+     */
+    public PulseController setTimeline(PulseTimeline timeline) {
+        this.simulation.setTimeline(timeline);
+
+        return this;
+    }
+
+    /**
+     * Limit the number of this controller's Pulses alive at once, or {@link PulseBudget#UNLIMITED}.
+     * For a {@link MultiPulseController}, the limit applies to each target.
+     */
+    public PulseController setMaxLivePulses(int maxLivePulses) {
+        this.simulation.setMaxLivePulses(maxLivePulses);
+
+        return this;
+    }
+
+    /**
+     * Set how spawning degrades once a live pulse budget is exhausted,
+     * e.g. {@link PulseSimulation#BUDGET_POLICY_STRETCH_RESPAWN}.
+     */
+    public PulseController setBudgetPolicy(int budgetPolicy) {
+        this.simulation.setBudgetPolicy(budgetPolicy);
+
+        return this;
+    }
+
+    /**
+     * Share a budget of live Pulses with other controllers, instead of the process-wide
+     * {@link PulseBudget#getGlobal()} budget.
+     */
+    public PulseController setSharedBudget(PulseBudget sharedBudget) {
+        synchronized (lock) {
+            this.simulation.setSharedBudget(sharedBudget);
+        }
+
+        return this;
+    }
+
     public PulseController setDurationMs(long durationMs) {
-        this.durationMs = durationMs;
+        this.simulation.setDurationMs(durationMs);
 
         return this;
     }
@@ -364,7 +1135,7 @@ public class PulseController {
     }
 
     public PulseController setPulseLifeSpanMs(long pulseLifeSpanMs) {
-        this.pulseLifeSpanMs = pulseLifeSpanMs;
+        this.simulation.setLifeSpanMs(pulseLifeSpanMs);
 
         return this;
     }
@@ -374,13 +1145,13 @@ public class PulseController {
     }
 
     public PulseController setRespawnRateMs(long respawnRateMs) {
-        this.respawnRateMs = respawnRateMs;
+        this.simulation.setRespawnRateMs(respawnRateMs);
 
         return this;
     }
 
     public PulseController setPulseMaxScale(float pulseMaxScale) {
-        this.pulseMaxScale = pulseMaxScale;
+        this.simulation.setMaxScale(pulseMaxScale);
 
         return this;
     }
@@ -391,6 +1162,39 @@ public class PulseController {
         return this;
     }
 
+    /**
+     * Follow the target as it moves or resizes (e.g. while scrolling or animating) for
+     * subsequent attachments, instead of pulsing at its boundaries at the time of attaching.
+     * <br><br>
+     * The target's position is resolved before each draw of the parent, without allocating.
+     * Movement translates the existing Pulse geometry; only a change in size rebuilds it.
+     * This only affects single-target controllers.
+     */
+    public PulseController setTargetTrackingEnabled(boolean targetTrackingEnabled) {
+        this.targetTrackingEnabled = targetTrackingEnabled;
+
+        return this;
+    }
+
+    /**
+     * Set how the shape of the Pulses is derived from the target:
+     * <br><br>
+     * {@link #SHAPE_MODE_BOUNDS} (default) uses a circle or rectangle, according to the circle path override.
+     * <br>
+     * {@link #SHAPE_MODE_OUTLINE} follows the target's rectangular or rounded rectangular outline (API 24+),
+     * falling back to the contour of its opaque pixels.
+     * <br>
+     * {@link #SHAPE_MODE_ALPHA_CONTOUR} follows the simplified contour of the target's opaque pixels.
+     * <br><br>
+     * Extracted shapes are cached per target View and size, with contours traced off the UI thread.
+     * This only affects single-target controllers.
+     */
+    public PulseController setShapeMode(int shapeMode) {
+        this.shapeMode = shapeMode;
+
+        return this;
+    }
+
     public PulseController setPulsingColor(int pulsingColor) {
         this.pulsingColor = pulsingColor;
 
@@ -403,6 +1207,80 @@ public class PulseController {
         return this;
     }
 
+    /**
+     * Outline the region invalidated each frame, for verifying that only
+     * the area around the Pulses is being redrawn.
+     */
+    public PulseController setInvalidationDebuggingEnabled(boolean enabled) {
+        if (!enabled) {
+            this.invalidationDebugPaint = null;
+
+            return this;
+        }
+
+        Paint paint = new Paint();
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(2);
+        paint.setColor(Color.RED);
+
+        this.invalidationDebugPaint = paint;
+
+        return this;
+    }
+
+    /**
+     * Set the strategy used to draw the Pulses, e.g. a {@link com.jackpocket.pulse.renderers.RenderNodePulseRenderer}
+     * to only update each pulse's scale and alpha per frame where supported.
+     * Defaults to the {@link PrimitivePulseRenderer}. The previous renderer is released.
+     */
+    public PulseController setRenderer(PulseRenderer renderer) {
+        synchronized (lock) {
+            this.renderer.release();
+            this.renderer = renderer;
+        }
+
+        return this;
+    }
+
+    /**
+     * Set the policy deciding which display frames the Pulses are updated and redrawn on,
+     * e.g. {@link PulseFrameRatePolicy#fixed(int)} or {@link PulseFrameRatePolicy#adaptive(int, int)}.
+     * Defaults to {@link PulseFrameRatePolicy#matchDisplay()}.
+     * <br><br>
+     * Policies hold pacing state and should not be shared between controllers.
+     */
+    public PulseController setFrameRatePolicy(PulseFrameRatePolicy frameRatePolicy) {
+        this.frameRatePolicy = frameRatePolicy;
+
+        resetFrameRatePolicy();
+
+        return this;
+    }
+
+    /**
+     * Set the time source used wherever a frame time is not supplied, e.g. when attaching,
+     * pausing or calling {@link #update()}. Defaults to the {@link UptimePulseClock}, which
+     * shares the time base of the {@link PulseScheduler}'s frames.
+     * <br><br>
+     * Clocks with another time base should only be used with a null scheduler.
+     */
+    public PulseController setClock(PulseClock clock) {
+        this.clock = clock;
+
+        return this;
+    }
+
+    /**
+     * Set the scheduler ticking this controller, or null to only update it through
+     * explicit calls to {@link #update(long)}, e.g. from a {@link HeadlessPulseRenderer}.
+     * This should not be changed while pulsing.
+     */
+    public PulseController setScheduler(PulseScheduler scheduler) {
+        this.scheduler = scheduler;
+
+        return this;
+    }
+
     /**
      * Set a callback to be triggered on (non-canceled or stopped) pulse completions.
      * <br><br>
@@ -417,11 +1295,60 @@ public class PulseController {
         return this;
     }
 
+    /**
+     * Set a callback to be triggered when a live pulse budget is first exhausted in a sequence.
+     * <br><br>
+     * This callback is weakly held.
+     *
+     * @param budgetListener the callback to be triggered
+     * @return this instance
+     */
+    public PulseController setBudgetListener(PulseBudgetListener budgetListener) {
+        this.budgetListener = new WeakReference<PulseBudgetListener>(budgetListener);
+
+        return this;
+    }
+
+    /**
+     * Enable or disable recording of {@link PulseMetrics}. Metrics are reset on
+     * each attachment, and nothing is recorded or timed while disabled.
+     */
+    public PulseController setMetricsEnabled(boolean enabled) {
+        this.metrics = enabled ? new PulseMetrics() : null;
+
+        return this;
+    }
+
+    /**
+     * Set a callback to receive the {@link PulseMetrics} of each (non-canceled or stopped)
+     * completed pulse sequence, while metrics are enabled.
+     * <br><br>
+     * This callback is weakly held.
+     *
+     * @param metricsListener the callback to be triggered
+     * @return this instance
+     */
+    public PulseController setMetricsListener(PulseMetrics.PulseMetricsListener metricsListener) {
+        this.metricsListener = new WeakReference<PulseMetrics.PulseMetricsListener>(metricsListener);
+
+        return this;
+    }
+
+    /**
+     * @return a copy of the metrics recorded for the current (or last) pulse sequence,
+     *      or null if metrics are disabled
+     */
+    public PulseMetrics getMetrics() {
+        PulseMetrics metrics = this.metrics;
+
+        return metrics == null ? null : metrics.copy();
+    }
+
     public View getParent() {
         return parent.get();
     }
 
     public long getDurationMs() {
-        return durationMs;
+        return simulation.getDurationMs();
     }
 }
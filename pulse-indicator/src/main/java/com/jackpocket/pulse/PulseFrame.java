@@ -0,0 +1,156 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Rect;
+
+/**
+ * A snapshot of every live pulse's drawable state at a given frame time.
+ * <br><br>
+ * Frames are written by the updater and handed to the drawing side through a
+ * {@link PulseFrameBuffer}; once published a frame is never modified until the
+ * reader has swapped it back out.
+ */
+public class PulseFrame {
+
+    private long frameTimeMs = 0;
+    private int size = 0;
+
+    private float[] scales;
+    private int[] alphas;
+    private int[] colors;
+    private PulseTarget[] targets;
+
+    private final Rect bounds = new Rect();
+    private final Rect invalidatedBounds = new Rect();
+
+    private Pulse pulse;
+    private Pulse pulseSource;
+    private Pulse copiedSource;
+
+    volatile boolean fresh = false;
+
+    public PulseFrame() {
+        this(PulseBuffer.DEFAULT_CAPACITY);
+    }
+
+    public PulseFrame(int capacity) {
+        this.scales = new float[capacity];
+        this.alphas = new int[capacity];
+        this.colors = new int[capacity];
+        this.targets = new PulseTarget[capacity];
+    }
+
+    /**
+     * Reset this frame for writing, growing its arrays only if the
+     * supplied capacity exceeds what has previously been allocated.
+     */
+    void begin(long frameTimeMs, int capacity) {
+        if (scales.length < capacity) {
+            this.scales = new float[capacity];
+            this.alphas = new int[capacity];
+            this.colors = new int[capacity];
+            this.targets = new PulseTarget[capacity];
+        }
+
+        this.frameTimeMs = frameTimeMs;
+        this.size = 0;
+        this.bounds.setEmpty();
+        this.invalidatedBounds.setEmpty();
+    }
+
+    void add(float scale, int alpha) {
+        add(scale, alpha, PulseTimeline.COLOR_INHERIT, null);
+    }
+
+    void add(float scale, int alpha, int color, PulseTarget target) {
+        this.scales[size] = scale;
+        this.alphas[size] = alpha;
+        this.colors[size] = color;
+        this.targets[size] = target;
+        this.size++;
+    }
+
+    /**
+     * Snapshot the appearance and geometry of the Pulse this frame's pulses are drawn with,
+     * copying only when the source has been replaced or modified since the last snapshot.
+     */
+    void setPulse(Pulse source) {
+        this.pulseSource = source;
+
+        if (source == null)
+            return;
+
+        if (pulse == null) {
+            this.pulse = new Pulse(source);
+            this.copiedSource = source;
+
+            return;
+        }
+
+        if (copiedSource == source && pulse.getRevision() == source.getRevision())
+            return;
+
+        pulse.copyFrom(source);
+
+        this.copiedSource = source;
+    }
+
+    public long getFrameTimeMs() {
+        return frameTimeMs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float getScale(int index) {
+        return scales[index];
+    }
+
+    public int getAlpha(int index) {
+        return alphas[index];
+    }
+
+    /**
+     * @return the pulse's own color, or {@link PulseTimeline#COLOR_INHERIT} to use the controller's
+     */
+    public int getColor(int index) {
+        return colors[index];
+    }
+
+    /**
+     * Resolve the color to draw a pulse with; its alpha is replaced by the pulse's alpha.
+     */
+    public int getColor(int index, int inheritedColor) {
+        return colors[index] == PulseTimeline.COLOR_INHERIT ? inheritedColor : colors[index];
+    }
+
+    /**
+     * @return the target the pulse belongs to, or null for single-target controllers
+     */
+    public PulseTarget getTarget(int index) {
+        return targets[index];
+    }
+
+    /**
+     * @return a snapshot of the Pulse whose color, stroke width and geometry this frame's pulses
+     *      are drawn with, or null if none was published; must not be modified
+     */
+    public Pulse getPulse() {
+        return pulseSource == null ? null : pulse;
+    }
+
+    /**
+     * @return the union of every pulse's drawn area in this frame; must not be modified
+     */
+    public Rect getBounds() {
+        return bounds;
+    }
+
+    /**
+     * @return the area invalidated for this frame, covering both this frame's
+     *      and the previous frame's bounds; must not be modified
+     */
+    public Rect getInvalidatedBounds() {
+        return invalidatedBounds;
+    }
+}
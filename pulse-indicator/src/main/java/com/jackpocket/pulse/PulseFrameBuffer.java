@@ -0,0 +1,56 @@
+package com.jackpocket.pulse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free triple buffer of {@link PulseFrame}s between a single updating
+ * thread and a single drawing thread.
+ * <br><br>
+ * The updater fills the frame returned by {@link #beginWrite(long, int)} and hands it
+ * over with {@link #publish()}, a single atomic swap with the pending frame. The
+ * drawer calls {@link #acquire()} to swap in the newest published frame, if any,
+ * and otherwise keeps reading the frame it already holds. Neither side ever
+ * blocks or copies, and neither can observe a frame the other is writing.
+ */
+public class PulseFrameBuffer {
+
+    private PulseFrame writeFrame = new PulseFrame();
+    private PulseFrame readFrame = new PulseFrame();
+
+    private final AtomicReference<PulseFrame> pendingFrame = new AtomicReference<PulseFrame>(new PulseFrame());
+
+    /**
+     * Only to be called from the updating thread.
+     *
+     * @return the frame to be filled before calling {@link #publish()}
+     */
+    public PulseFrame beginWrite(long frameTimeMs, int capacity) {
+        writeFrame.fresh = false;
+        writeFrame.begin(frameTimeMs, capacity);
+
+        return writeFrame;
+    }
+
+    /**
+     * Only to be called from the updating thread.
+     */
+    public void publish() {
+        writeFrame.fresh = true;
+
+        this.writeFrame = pendingFrame.getAndSet(writeFrame);
+    }
+
+    /**
+     * Only to be called from the drawing thread.
+     *
+     * @return the most recently published frame
+     */
+    public PulseFrame acquire() {
+        if (pendingFrame.get().fresh) {
+            this.readFrame = pendingFrame.getAndSet(readFrame);
+            this.readFrame.fresh = false;
+        }
+
+        return readFrame;
+    }
+}
@@ -0,0 +1,218 @@
+package com.jackpocket.pulse;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+
+/**
+ * Decides which of the {@link PulseScheduler}'s display frames a {@link PulseController}
+ * should be updated on.
+ * <br><br>
+ * Pulses are always evaluated at the frame's actual timestamp, so skipping frames only
+ * lowers the rate at which they are redrawn, never their speed.
+ * <br><br>
+ * Instances hold per-controller pacing state and should not be shared between controllers.
+ */
+public class PulseFrameRatePolicy {
+
+    public static final int MODE_MATCH_DISPLAY = 0;
+    public static final int MODE_FIXED = 1;
+    public static final int MODE_ADAPTIVE = 2;
+
+    protected static final int ADAPTIVE_LATE_FRAME_THRESHOLD = 3;
+    protected static final int ADAPTIVE_RECOVERY_FRAME_THRESHOLD = 30;
+    protected static final long DEVICE_STATE_REFRESH_INTERVAL_MS = 1000;
+    protected static final float VSYNC_ROUNDING_TOLERANCE = 0.01f;
+
+    /**
+     * Update on every display frame. This is the default.
+     */
+    public static PulseFrameRatePolicy matchDisplay() {
+        return new PulseFrameRatePolicy(MODE_MATCH_DISPLAY, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Update at (up to) the supplied rate, limited by the display's refresh rate. Rates
+     * not dividing the display's evenly are rounded down to the next rate that does,
+     * e.g. 45 fps on a 60 Hz display updates every other frame.
+     */
+    public static PulseFrameRatePolicy fixed(int fps) {
+        return new PulseFrameRatePolicy(MODE_FIXED, fps, fps);
+    }
+
+    /**
+     * Update at up to maxFps, halving the rate (down to minFps) when display frames
+     * are repeatedly late and recovering once they are consistently on time. The
+     * minimum rate is used while the device is in power-save mode (API 21+) or is
+     * moderately or further thermally throttled (API 29+).
+     */
+    public static PulseFrameRatePolicy adaptive(int maxFps, int minFps) {
+        return new PulseFrameRatePolicy(MODE_ADAPTIVE, maxFps, minFps);
+    }
+
+    protected final int mode;
+    protected final int maxFps;
+    protected final int minFps;
+
+    protected PowerManager powerManager;
+    protected float displayFrameIntervalMs = 1000 / 60f;
+
+    protected float currentFps;
+    protected long lastFrameMs;
+    protected long lastUpdateMs;
+    protected long lastDeviceStateRefreshMs;
+    protected boolean deviceConstrained = false;
+
+    protected int lateFrames = 0;
+    protected int onTimeFrames = 0;
+
+    protected PulseFrameRatePolicy(int mode, int maxFps, int minFps) {
+        if (maxFps < 1 || minFps < 1)
+            throw new IllegalArgumentException("PulseFrameRatePolicy rates must be positive");
+
+        this.mode = mode;
+        this.maxFps = Math.max(maxFps, minFps);
+        this.minFps = Math.min(maxFps, minFps);
+    }
+
+    /**
+     * Reset the pacing state for a new pulse sequence.
+     *
+     * @param context a Context used to retrieve the device's power state, or null
+     * @param displayFrameIntervalMs the refresh interval of the display being drawn to
+     */
+    public void reset(Context context, float displayFrameIntervalMs) {
+        this.displayFrameIntervalMs = displayFrameIntervalMs;
+        this.currentFps = getMaxFps();
+        this.lastFrameMs = 0;
+        this.lastUpdateMs = Long.MIN_VALUE / 2;
+        this.lastDeviceStateRefreshMs = Long.MIN_VALUE / 2;
+        this.lateFrames = 0;
+        this.onTimeFrames = 0;
+
+        if (mode == MODE_ADAPTIVE && powerManager == null && context != null) {
+            this.powerManager = (PowerManager) context.getApplicationContext()
+                    .getSystemService(Context.POWER_SERVICE);
+        }
+    }
+
+    /**
+     * Called for every display frame while the controller is registered.
+     *
+     * @return true if the controller should be updated for this frame
+     */
+    public boolean shouldUpdate(long frameTimeMs) {
+        if (mode == MODE_MATCH_DISPLAY)
+            return true;
+
+        if (mode == MODE_ADAPTIVE) {
+            adapt(frameTimeMs);
+        }
+
+        this.lastFrameMs = frameTimeMs;
+
+        // Allow frames up to half a display interval early, as frame times jitter around each vsync
+        float minimumIntervalMs = getUpdateIntervalMs() - (displayFrameIntervalMs / 2);
+
+        if (frameTimeMs - lastUpdateMs < minimumIntervalMs)
+            return false;
+
+        this.lastUpdateMs = frameTimeMs;
+
+        return true;
+    }
+
+    /**
+     * Shift the pacing state by the time its controller spent paused, so the gap
+     * isn't treated as a late frame.
+     */
+    public void shift(long deltaMs) {
+        if (lastFrameMs != 0) {
+            this.lastFrameMs += deltaMs;
+        }
+
+        this.lastUpdateMs += deltaMs;
+    }
+
+    protected void adapt(long frameTimeMs) {
+        if (DEVICE_STATE_REFRESH_INTERVAL_MS <= frameTimeMs - lastDeviceStateRefreshMs) {
+            this.lastDeviceStateRefreshMs = frameTimeMs;
+            this.deviceConstrained = isDeviceConstrained();
+        }
+
+        if (deviceConstrained) {
+            this.currentFps = minFps;
+
+            return;
+        }
+
+        if (lastFrameMs == 0)
+            return;
+
+        if (displayFrameIntervalMs * 1.5f < frameTimeMs - lastFrameMs) {
+            this.lateFrames++;
+            this.onTimeFrames = 0;
+        }
+        else {
+            this.onTimeFrames++;
+            this.lateFrames = 0;
+        }
+
+        if (ADAPTIVE_LATE_FRAME_THRESHOLD <= lateFrames) {
+            this.currentFps = Math.max(minFps, currentFps / 2);
+            this.lateFrames = 0;
+        }
+        else if (ADAPTIVE_RECOVERY_FRAME_THRESHOLD <= onTimeFrames) {
+            this.currentFps = Math.min(getMaxFps(), currentFps * 2);
+            this.onTimeFrames = 0;
+        }
+    }
+
+    protected boolean isDeviceConstrained() {
+        if (powerManager == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP)
+            return false;
+
+        return powerManager.isPowerSaveMode() || isThermallyThrottled();
+    }
+
+    @TargetApi(Build.VERSION_CODES.Q)
+    protected boolean isThermallyThrottled() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q)
+            return false;
+
+        return PowerManager.THERMAL_STATUS_MODERATE <= powerManager.getCurrentThermalStatus();
+    }
+
+    /**
+     * @return the highest rate allowed by both the policy and the display
+     */
+    protected float getMaxFps() {
+        return Math.min(maxFps, 1000 / displayFrameIntervalMs);
+    }
+
+    /**
+     * @return the interval between updates at the current rate, which is the smallest
+     *      whole number of display frames not shorter than the rate's own interval
+     */
+    public float getUpdateIntervalMs() {
+        if (mode == MODE_MATCH_DISPLAY)
+            return displayFrameIntervalMs;
+
+        // Tolerate rounding in the display's reported rate, so e.g. 30 fps on a 59.94 Hz display is still every other frame
+        float displayFrames = (1000 / currentFps) / displayFrameIntervalMs;
+
+        return Math.max(1, (int) Math.ceil(displayFrames - VSYNC_ROUNDING_TOLERANCE)) * displayFrameIntervalMs;
+    }
+
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the rate currently being targeted
+     */
+    public float getCurrentFps() {
+        return mode == MODE_MATCH_DISPLAY ? 1000 / displayFrameIntervalMs : currentFps;
+    }
+}
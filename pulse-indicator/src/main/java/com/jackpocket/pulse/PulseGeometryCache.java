@@ -0,0 +1,150 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide, bounded LRU cache of pulse {@link Path}s keyed by shape,
+ * boundaries and corner radius, so that every Pulse drawn for the same target
+ * (and repeated attachments to it) share a single Path instance.
+ * <br><br>
+ * Paths returned from this cache are shared and must not be modified.
+ */
+public class PulseGeometryCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private static PulseGeometryCache instance;
+
+    public static synchronized PulseGeometryCache getInstance() {
+        if (instance == null)
+            instance = new PulseGeometryCache(DEFAULT_MAX_ENTRIES);
+
+        return instance;
+    }
+
+    private final LinkedHashMap<Key, Path> paths;
+    private final Key lookupKey = new Key();
+
+    public PulseGeometryCache(final int maxEntries) {
+        this.paths = new LinkedHashMap<Key, Path>(maxEntries, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Path> eldest) {
+                return maxEntries < size();
+            }
+        };
+    }
+
+    /**
+     * @return the shared Path for the supplied geometry, building it on a cache miss
+     */
+    public synchronized Path getPath(boolean circle, Rect boundaries, float cornerRadius) {
+        lookupKey.set(circle, boundaries, cornerRadius);
+
+        Path path = paths.get(lookupKey);
+
+        if (path != null)
+            return path;
+
+        path = buildPath(circle, boundaries);
+
+        paths.put(new Key().set(circle, boundaries, cornerRadius), path);
+
+        return path;
+    }
+
+    public synchronized void clear() {
+        paths.clear();
+    }
+
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    protected Path buildPath(boolean circle, Rect boundaries) {
+        Path path = new Path();
+
+        if (circle) {
+            path.addCircle(
+                    getCenterX(boundaries),
+                    getCenterY(boundaries),
+                    getCircleRadius(boundaries),
+                    Path.Direction.CW);
+        }
+        else {
+            path.moveTo(boundaries.left, boundaries.top);
+            path.lineTo(boundaries.right, boundaries.top);
+            path.lineTo(boundaries.right, boundaries.bottom);
+            path.lineTo(boundaries.left, boundaries.bottom);
+            path.lineTo(boundaries.left, boundaries.top);
+        }
+
+        return path;
+    }
+
+    public static int getCenterX(Rect boundaries) {
+        return boundaries.left + ((boundaries.right - boundaries.left) / 2);
+    }
+
+    public static int getCenterY(Rect boundaries) {
+        return Math.abs(boundaries.top + ((boundaries.bottom - boundaries.top) / 2));
+    }
+
+    public static int getCircleRadius(Rect boundaries) {
+        int horizontal = boundaries.right - boundaries.left;
+        int vertical = Math.abs(boundaries.bottom - boundaries.top);
+
+        return Math.min(horizontal, vertical) / 2;
+    }
+
+    private static class Key {
+
+        boolean circle;
+        int left;
+        int top;
+        int right;
+        int bottom;
+        float cornerRadius;
+
+        Key set(boolean circle, Rect boundaries, float cornerRadius) {
+            this.circle = circle;
+            this.left = boundaries.left;
+            this.top = boundaries.top;
+            this.right = boundaries.right;
+            this.bottom = boundaries.bottom;
+            this.cornerRadius = cornerRadius;
+
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+
+            Key other = (Key) o;
+
+            return circle == other.circle
+                    && left == other.left
+                    && top == other.top
+                    && right == other.right
+                    && bottom == other.bottom
+                    && Float.compare(cornerRadius, other.cornerRadius) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = circle ? 1 : 0;
+            result = 31 * result + left;
+            result = 31 * result + top;
+            result = 31 * result + right;
+            result = 31 * result + bottom;
+            result = 31 * result + Float.floatToIntBits(cornerRadius);
+
+            return result;
+        }
+    }
+}
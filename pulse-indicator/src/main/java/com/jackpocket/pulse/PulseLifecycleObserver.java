@@ -0,0 +1,100 @@
+package com.jackpocket.pulse;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.app.Application;
+import android.os.Build;
+import android.os.Bundle;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Pauses a {@link PulseController} while the Activity it was attached from is
+ * stopped, and resumes it once started again. The observer unregisters itself
+ * and stops the controller when the Activity is destroyed.
+ * <br><br>
+ * Both the Activity and the controller are weakly held.
+ */
+@TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+class PulseLifecycleObserver implements Application.ActivityLifecycleCallbacks {
+
+    private final WeakReference<Activity> activity;
+    private final WeakReference<PulseController> controller;
+
+    PulseLifecycleObserver(Activity activity, PulseController controller) {
+        this.activity = new WeakReference<Activity>(activity);
+        this.controller = new WeakReference<PulseController>(controller);
+    }
+
+    boolean isObserving(Activity activity) {
+        return this.activity.get() == activity;
+    }
+
+    void register() {
+        Activity activity = this.activity.get();
+
+        if (activity == null || activity.getApplication() == null)
+            return;
+
+        activity.getApplication()
+                .registerActivityLifecycleCallbacks(this);
+    }
+
+    void unregister() {
+        Activity activity = this.activity.get();
+
+        if (activity == null || activity.getApplication() == null)
+            return;
+
+        activity.getApplication()
+                .unregisterActivityLifecycleCallbacks(this);
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+        PulseController controller = this.controller.get();
+
+        if (controller == null || !isObserving(activity))
+            return;
+
+        controller.resume(PulseController.PAUSE_REASON_STOPPED);
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+        PulseController controller = this.controller.get();
+
+        if (controller == null || !isObserving(activity))
+            return;
+
+        controller.pause(PulseController.PAUSE_REASON_STOPPED);
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+        if (!isObserving(activity))
+            return;
+
+        activity.getApplication()
+                .unregisterActivityLifecycleCallbacks(this);
+
+        PulseController controller = this.controller.get();
+
+        // Stopped so that its snapshot and shared budget units are released with the Activity
+        if (controller != null) {
+            controller.stopPulsing();
+        }
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) { }
+
+    @Override
+    public void onActivityResumed(Activity activity) { }
+
+    @Override
+    public void onActivityPaused(Activity activity) { }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) { }
+}
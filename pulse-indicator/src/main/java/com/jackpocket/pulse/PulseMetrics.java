@@ -0,0 +1,223 @@
+package com.jackpocket.pulse;
+
+import java.util.Arrays;
+
+/**
+ * Performance counters recorded by a {@link PulseController} over a single
+ * pulse sequence, when enabled via {@link PulseController#setMetricsEnabled(boolean)}.
+ * <br><br>
+ * Instances handed out by the controller are copies, and are not modified afterwards.
+ */
+public class PulseMetrics {
+
+    public interface PulseMetricsListener {
+        public void onPulseMetrics(PulseController controller, PulseMetrics metrics);
+    }
+
+    /**
+     * A fixed-bucket histogram of durations. Bucket {@code i} counts durations
+     * below {@code 2^i * 125} microseconds, with the last bucket holding everything else.
+     */
+    public static class Histogram {
+
+        public static final int BUCKET_COUNT = 10;
+
+        private static final long FIRST_BUCKET_LIMIT_NS = 125000;
+
+        private final long[] counts = new long[BUCKET_COUNT];
+        private long totalCount = 0;
+        private long totalNs = 0;
+        private long maxNs = 0;
+
+        void record(long durationNs) {
+            int bucket = 0;
+            long limit = FIRST_BUCKET_LIMIT_NS;
+
+            while (bucket < BUCKET_COUNT - 1 && limit <= durationNs) {
+                bucket++;
+                limit *= 2;
+            }
+
+            this.counts[bucket]++;
+            this.totalCount++;
+            this.totalNs += durationNs;
+            this.maxNs = Math.max(maxNs, durationNs);
+        }
+
+        void clear() {
+            Arrays.fill(counts, 0);
+
+            this.totalCount = 0;
+            this.totalNs = 0;
+            this.maxNs = 0;
+        }
+
+        void copyFrom(Histogram other) {
+            System.arraycopy(other.counts, 0, counts, 0, BUCKET_COUNT);
+
+            this.totalCount = other.totalCount;
+            this.totalNs = other.totalNs;
+            this.maxNs = other.maxNs;
+        }
+
+        /**
+         * @return the exclusive upper bound of the bucket, in nanoseconds, or
+         *      {@link Long#MAX_VALUE} for the last bucket
+         */
+        public static long getBucketLimitNs(int bucket) {
+            if (bucket == BUCKET_COUNT - 1)
+                return Long.MAX_VALUE;
+
+            return FIRST_BUCKET_LIMIT_NS << bucket;
+        }
+
+        public long getCount(int bucket) {
+            return counts[bucket];
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getAverageNs() {
+            return totalCount == 0 ? 0 : totalNs / totalCount;
+        }
+
+        public long getMaxNs() {
+            return maxNs;
+        }
+    }
+
+    private final Histogram updateTimes = new Histogram();
+    private final Histogram drawTimes = new Histogram();
+
+    private float expectedFrameIntervalMs = 1000 / 60f;
+    private long lastFrameTimeMs = -1;
+
+    private long framesTicked = 0;
+    private long framesLate = 0;
+    private long framesSkipped = 0;
+    private int maxLivePulses = 0;
+    private long snapshotCaptureTimeNs = 0;
+    private long budgetExceededSpawns = 0;
+
+    synchronized void setExpectedFrameIntervalMs(float expectedFrameIntervalMs) {
+        this.expectedFrameIntervalMs = expectedFrameIntervalMs;
+    }
+
+    /**
+     * A frame is considered late when it arrives more than half an interval after
+     * expected, in which case every whole interval it missed is counted as skipped.
+     *
+     * @param expectedFrameIntervalMs the interval the controller's {@link PulseFrameRatePolicy} is
+     *      currently updating at, rather than the display's, so throttled updates aren't counted as late
+     */
+    synchronized void recordUpdate(long frameTimeMs, float expectedFrameIntervalMs, long durationNs, int livePulses) {
+        this.expectedFrameIntervalMs = expectedFrameIntervalMs;
+
+        if (0 <= lastFrameTimeMs) {
+            float intervals = (frameTimeMs - lastFrameTimeMs) / expectedFrameIntervalMs;
+
+            if (1.5f < intervals) {
+                this.framesLate++;
+                this.framesSkipped += Math.round(intervals) - 1;
+            }
+        }
+
+        this.lastFrameTimeMs = frameTimeMs;
+        this.framesTicked++;
+        this.maxLivePulses = Math.max(maxLivePulses, livePulses);
+
+        updateTimes.record(durationNs);
+    }
+
+    /**
+     * Shift the previous frame's time by the time spent paused.
+     */
+    synchronized void shift(long deltaMs) {
+        if (lastFrameTimeMs < 0)
+            return;
+
+        this.lastFrameTimeMs += deltaMs;
+    }
+
+    synchronized void recordDraw(long durationNs) {
+        drawTimes.record(durationNs);
+    }
+
+    synchronized void recordSnapshotCapture(long durationNs) {
+        this.snapshotCaptureTimeNs = durationNs;
+    }
+
+    synchronized void recordBudgetExceeded(int spawns) {
+        this.budgetExceededSpawns += spawns;
+    }
+
+    synchronized void reset() {
+        updateTimes.clear();
+        drawTimes.clear();
+
+        this.lastFrameTimeMs = -1;
+        this.framesTicked = 0;
+        this.framesLate = 0;
+        this.framesSkipped = 0;
+        this.maxLivePulses = 0;
+        this.snapshotCaptureTimeNs = 0;
+        this.budgetExceededSpawns = 0;
+    }
+
+    synchronized PulseMetrics copy() {
+        PulseMetrics copy = new PulseMetrics();
+        copy.updateTimes.copyFrom(updateTimes);
+        copy.drawTimes.copyFrom(drawTimes);
+        copy.expectedFrameIntervalMs = expectedFrameIntervalMs;
+        copy.lastFrameTimeMs = lastFrameTimeMs;
+        copy.framesTicked = framesTicked;
+        copy.framesLate = framesLate;
+        copy.framesSkipped = framesSkipped;
+        copy.maxLivePulses = maxLivePulses;
+        copy.snapshotCaptureTimeNs = snapshotCaptureTimeNs;
+        copy.budgetExceededSpawns = budgetExceededSpawns;
+
+        return copy;
+    }
+
+    public Histogram getUpdateTimes() {
+        return updateTimes;
+    }
+
+    public Histogram getDrawTimes() {
+        return drawTimes;
+    }
+
+    public float getExpectedFrameIntervalMs() {
+        return expectedFrameIntervalMs;
+    }
+
+    public long getFramesTicked() {
+        return framesTicked;
+    }
+
+    public long getFramesLate() {
+        return framesLate;
+    }
+
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    public int getMaxLivePulses() {
+        return maxLivePulses;
+    }
+
+    public long getSnapshotCaptureTimeNs() {
+        return snapshotCaptureTimeNs;
+    }
+
+    /**
+     * @return the number of spawns a live pulse budget's policy was applied to
+     */
+    public long getBudgetExceededSpawns() {
+        return budgetExceededSpawns;
+    }
+}
@@ -0,0 +1,209 @@
+package com.jackpocket.pulse;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * A frame loop that ticks every registered {@link PulseController} once per display
+ * frame, using the frame's vsync timestamp. Controllers may skip frames according
+ * to their {@link PulseFrameRatePolicy}.
+ * <br><br>
+ * The shared instance ticks controllers on the main thread. Schedulers created for
+ * another {@link Looper} (e.g. that of a render thread) tick and draw their controllers
+ * on that thread instead.
+ * <br><br>
+ * On API 16+ frames are driven by the {@link Choreographer}; older devices
+ * fall back to posting to the Looper's {@link Handler} at a fixed interval.
+ * <br><br>
+ * Controllers that are no longer running are removed automatically and notified
+ * via {@link PulseController#finishPulsing()}, which is always called on the main thread.
+ */
+public class PulseScheduler {
+
+    protected static final long FALLBACK_FRAME_INTERVAL_MS = 16;
+
+    private static PulseScheduler instance;
+
+    public static synchronized PulseScheduler getInstance() {
+        if (instance == null)
+            instance = new PulseScheduler();
+
+        return instance;
+    }
+
+    private final Handler handler;
+    private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+
+    private final ArrayList<PulseController> controllers = new ArrayList<PulseController>();
+    private final ArrayList<PulseController> tickingControllers = new ArrayList<PulseController>();
+
+    private FrameSource frameSource;
+    private boolean frameScheduled = false;
+
+    private final Runnable scheduleFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            scheduleFrameIfNeeded();
+        }
+    };
+
+    protected PulseScheduler() {
+        this(Looper.getMainLooper());
+    }
+
+    /**
+     * @param looper the Looper whose thread controllers are ticked on, which must be able
+     *      to obtain a {@link Choreographer} on API 16+
+     */
+    public PulseScheduler(Looper looper) {
+        this.handler = new Handler(looper);
+    }
+
+    /**
+     * Register the controller to be ticked on each frame until it stops running.
+     * Registering an already-registered controller has no effect.
+     */
+    public void register(PulseController controller) {
+        synchronized (controllers) {
+            if (controllers.contains(controller))
+                return;
+
+            controllers.add(controller);
+        }
+
+        // The Choreographer is thread-local, so frames must be requested from the Looper's thread
+        if (Looper.myLooper() == handler.getLooper())
+            scheduleFrameIfNeeded();
+        else
+            handler.post(scheduleFrameRunnable);
+    }
+
+    /**
+     * Remove the controller without triggering its completion callback.
+     */
+    public void unregister(PulseController controller) {
+        synchronized (controllers) {
+            controllers.remove(controller);
+        }
+    }
+
+    public boolean isRegistered(PulseController controller) {
+        synchronized (controllers) {
+            return controllers.contains(controller);
+        }
+    }
+
+    protected void scheduleFrameIfNeeded() {
+        synchronized (controllers) {
+            if (frameScheduled || controllers.isEmpty())
+                return;
+
+            this.frameScheduled = true;
+        }
+
+        getFrameSource().postFrame();
+    }
+
+    protected FrameSource getFrameSource() {
+        if (frameSource == null) {
+            this.frameSource = Build.VERSION_CODES.JELLY_BEAN <= Build.VERSION.SDK_INT
+                    ? new ChoreographerFrameSource()
+                    : new HandlerFrameSource();
+        }
+
+        return frameSource;
+    }
+
+    protected void onFrame(long frameTimeMs) {
+        synchronized (controllers) {
+            this.frameScheduled = false;
+
+            tickingControllers.clear();
+            tickingControllers.addAll(controllers);
+        }
+
+        for (int i = 0; i < tickingControllers.size(); i++) {
+            PulseController controller = tickingControllers.get(i);
+
+            if (!isRegistered(controller) || !controller.shouldUpdate(frameTimeMs))
+                continue;
+
+            controller.update(frameTimeMs);
+
+            if (controller.isRunning(frameTimeMs))
+                continue;
+
+            synchronized (controllers) {
+                if (!controllers.remove(controller))
+                    continue;
+            }
+
+            finishOnMainThread(controller);
+        }
+
+        tickingControllers.clear();
+
+        scheduleFrameIfNeeded();
+    }
+
+    /**
+     * Finish the controller on the main thread, where its listeners are triggered and the
+     * Views it tracks may be accessed. Controllers restarted before the posted
+     * completion runs are left pulsing.
+     */
+    protected void finishOnMainThread(final PulseController controller) {
+        if (handler.getLooper() == Looper.getMainLooper()) {
+            controller.finishPulsing();
+
+            return;
+        }
+
+        mainThreadHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (controller.isRunning())
+                    return;
+
+                controller.finishPulsing();
+            }
+        });
+    }
+
+    protected interface FrameSource {
+        public void postFrame();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class ChoreographerFrameSource implements FrameSource, Choreographer.FrameCallback {
+
+        @Override
+        public void postFrame() {
+            Choreographer.getInstance()
+                    .postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos / 1000000);
+        }
+    }
+
+    private class HandlerFrameSource implements FrameSource, Runnable {
+
+        @Override
+        public void postFrame() {
+            handler.postDelayed(this, FALLBACK_FRAME_INTERVAL_MS);
+        }
+
+        @Override
+        public void run() {
+            onFrame(SystemClock.uptimeMillis());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * The shape of a pulse target, derived from its outline or the opaque region of its
+ * snapshot by the {@link PulseShapeExtractor}, for a specific target size.
+ * <br><br>
+ * Shapes filling the target's bounds with uniformly rounded corners are described by
+ * their corner radius alone, so they remain drawable with primitive Canvas calls. All
+ * others are described by a Path in the target's local coordinates.
+ */
+public class PulseShape {
+
+    private final int width;
+    private final int height;
+    private final float cornerRadius;
+    private final Path path;
+
+    private PulseShape(int width, int height, float cornerRadius, Path path) {
+        this.width = width;
+        this.height = height;
+        this.cornerRadius = cornerRadius;
+        this.path = path;
+    }
+
+    static PulseShape fromRoundRect(int width, int height, Rect rect, float cornerRadius) {
+        if (rect.left == 0 && rect.top == 0 && rect.right == width && rect.bottom == height)
+            return new PulseShape(width, height, cornerRadius, null);
+
+        Path path = new Path();
+        path.addRoundRect(new RectF(rect), cornerRadius, cornerRadius, Path.Direction.CW);
+
+        return new PulseShape(width, height, cornerRadius, path);
+    }
+
+    /**
+     * @param contour alternating x and y coordinates, as traced by {@link AlphaContour}
+     */
+    static PulseShape fromContour(int width, int height, float[] contour) {
+        Path path = new Path();
+        path.moveTo(contour[0], contour[1]);
+
+        for (int i = 2; i < contour.length; i += 2) {
+            path.lineTo(contour[i], contour[i + 1]);
+        }
+
+        path.close();
+
+        return new PulseShape(width, height, Pulse.DEFAULT_CORNER_RADIUS, path);
+    }
+
+    /**
+     * @return true if this shape was extracted for a target of the supplied size
+     */
+    public boolean matches(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * @return true if this shape is described by its corner radius alone
+     */
+    public boolean isRoundRect() {
+        return path == null;
+    }
+
+    public float getCornerRadius() {
+        return cornerRadius;
+    }
+
+    /**
+     * @return a new copy of this shape's Path, translated to the supplied target boundaries
+     */
+    public Path obtainPath(Rect boundaries) {
+        Path translated = new Path();
+        translated.set(path);
+        translated.offset(boundaries.left, boundaries.top);
+
+        return translated;
+    }
+}
@@ -0,0 +1,175 @@
+package com.jackpocket.pulse;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Outline;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewOutlineProvider;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Extracts the {@link PulseShape} of pulse targets, either from their {@link ViewOutlineProvider}
+ * (rectangular and rounded rectangular outlines, API 24+) or by tracing the opaque region of
+ * their snapshot with {@link AlphaContour} on a background thread.
+ * <br><br>
+ * Shapes are cached per View (weakly) and size, so they are only ever extracted once for each.
+ * This must only be used from the UI thread; callbacks are triggered on the UI thread.
+ */
+public class PulseShapeExtractor {
+
+    public interface ShapeCallback {
+        public void onShapeExtracted(View target, PulseShape shape);
+    }
+
+    private static PulseShapeExtractor instance;
+
+    public static synchronized PulseShapeExtractor getInstance() {
+        if (instance == null)
+            instance = new PulseShapeExtractor();
+
+        return instance;
+    }
+
+    private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+    private Handler workerHandler;
+
+    private final WeakHashMap<View, PulseShape> outlineShapes = new WeakHashMap<View, PulseShape>();
+    private final WeakHashMap<View, PulseShape> contourShapes = new WeakHashMap<View, PulseShape>();
+
+    protected PulseShapeExtractor() { }
+
+    /**
+     * Extract the target's shape, triggering the weakly held callback immediately if cached.
+     *
+     * @param mode {@link PulseController#SHAPE_MODE_OUTLINE} to prefer the target's outline,
+     *      falling back to its contour, or {@link PulseController#SHAPE_MODE_ALPHA_CONTOUR}
+     * @param snapshot the target's rendered snapshot to trace, or null to only use its outline
+     */
+    public void extract(View target, int mode, Bitmap snapshot, ShapeCallback callback) {
+        int width = target.getWidth();
+        int height = target.getHeight();
+
+        if (mode == PulseController.SHAPE_MODE_OUTLINE) {
+            PulseShape shape = outlineShapes.get(target);
+
+            if (shape == null || !shape.matches(width, height)) {
+                shape = extractOutline(target, width, height);
+            }
+
+            if (shape != null) {
+                outlineShapes.put(target, shape);
+                callback.onShapeExtracted(target, shape);
+
+                return;
+            }
+        }
+
+        PulseShape shape = contourShapes.get(target);
+
+        if (shape != null && shape.matches(width, height)) {
+            callback.onShapeExtracted(target, shape);
+
+            return;
+        }
+
+        if (snapshot == null || snapshot.isRecycled() || !(snapshot.getWidth() == width && snapshot.getHeight() == height))
+            return;
+
+        // The snapshot is reused by its owner, so its pixels are copied before leaving the UI thread
+        int[] pixels = new int[width * height];
+
+        snapshot.getPixels(pixels, 0, width, 0, 0, width, height);
+
+        getWorkerHandler()
+                .post(new ContourTask(target, callback, pixels, width, height));
+    }
+
+    @TargetApi(Build.VERSION_CODES.N)
+    protected PulseShape extractOutline(View target, int width, int height) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N)
+            return null;
+
+        ViewOutlineProvider provider = target.getOutlineProvider();
+
+        if (provider == null)
+            return null;
+
+        Outline outline = new Outline();
+        Rect rect = new Rect();
+
+        provider.getOutline(target, outline);
+
+        if (outline.isEmpty() || !outline.getRect(rect))
+            return null;
+
+        return PulseShape.fromRoundRect(width, height, rect, outline.getRadius());
+    }
+
+    protected synchronized Handler getWorkerHandler() {
+        if (workerHandler == null) {
+            HandlerThread thread = new HandlerThread("PulseShapeExtractor");
+            thread.start();
+
+            this.workerHandler = new Handler(thread.getLooper());
+        }
+
+        return workerHandler;
+    }
+
+    private class ContourTask implements Runnable {
+
+        private final WeakReference<View> target;
+        private final WeakReference<ShapeCallback> callback;
+        private final int[] pixels;
+        private final int width;
+        private final int height;
+
+        ContourTask(View target, ShapeCallback callback, int[] pixels, int width, int height) {
+            this.target = new WeakReference<View>(target);
+            this.callback = new WeakReference<ShapeCallback>(callback);
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void run() {
+            float[] contour = AlphaContour.trace(
+                    pixels,
+                    width,
+                    height,
+                    AlphaContour.DEFAULT_ALPHA_THRESHOLD,
+                    AlphaContour.DEFAULT_TOLERANCE_PX);
+
+            if (contour == null || contour.length < 6)
+                return;
+
+            final PulseShape shape = PulseShape.fromContour(width, height, contour);
+
+            mainThreadHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    View target = ContourTask.this.target.get();
+
+                    if (target == null)
+                        return;
+
+                    contourShapes.put(target, shape);
+
+                    ShapeCallback callback = ContourTask.this.callback.get();
+
+                    if (callback != null) {
+                        callback.onShapeExtracted(target, shape);
+                    }
+                }
+            });
+        }
+    }
+}
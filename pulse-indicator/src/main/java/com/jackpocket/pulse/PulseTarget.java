@@ -0,0 +1,103 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Rect;
+import android.view.View;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * A single pulsing target of a {@link MultiPulseController}, with its own
+ * pulse timings and completion callback.
+ * <br><br>
+ * A target's geometry is fixed when it is added to the controller.
+ */
+public class PulseTarget implements PulseSimulationGroup.Member {
+
+    private final WeakReference<View> view;
+    private final Rect boundaries;
+    private final boolean circle;
+    private final int centerX;
+    private final int centerY;
+    private final int radius;
+    private final int strokeWidth;
+
+    final PulseSimulation simulation = new PulseSimulation();
+
+    private WeakReference<PulseController.PulseEventListener> finishedListener;
+
+    PulseTarget(View view, Rect boundaries, boolean circle, int strokeWidth) {
+        this.view = new WeakReference<View>(view);
+        this.boundaries = new Rect(boundaries);
+        this.circle = circle;
+        this.centerX = PulseGeometryCache.getCenterX(boundaries);
+        this.centerY = PulseGeometryCache.getCenterY(boundaries);
+        this.radius = PulseGeometryCache.getCircleRadius(boundaries);
+        this.strokeWidth = strokeWidth;
+    }
+
+    /**
+     * Set a callback to be triggered when this target's pulsing completes without
+     * being removed or stopped. The View supplied to the callback is null for
+     * targets added by their boundaries.
+     * <br><br>
+     * This callback is weakly held.
+     *
+     * @param finishedListener the callback to be triggered
+     * @return this instance
+     */
+    public PulseTarget setFinishedListener(PulseController.PulseEventListener finishedListener) {
+        this.finishedListener = new WeakReference<PulseController.PulseEventListener>(finishedListener);
+
+        return this;
+    }
+
+    void dispatchFinished() {
+        if (finishedListener == null)
+            return;
+
+        final PulseController.PulseEventListener completionCallback = this.finishedListener.get();
+
+        if (completionCallback != null) {
+            completionCallback.onPulseEvent(view.get());
+        }
+    }
+
+    @Override
+    public PulseSimulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * @return the target View, or null if added by its boundaries or no longer referenced
+     */
+    public View getView() {
+        return view.get();
+    }
+
+    /**
+     * @return the target's boundaries within the host; must not be modified
+     */
+    public Rect getBoundaries() {
+        return boundaries;
+    }
+
+    public boolean isCircle() {
+        return circle;
+    }
+
+    public int getCenterX() {
+        return centerX;
+    }
+
+    public int getCenterY() {
+        return centerY;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getStrokeWidth() {
+        return strokeWidth;
+    }
+}
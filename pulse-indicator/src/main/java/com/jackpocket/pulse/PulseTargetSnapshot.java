@@ -0,0 +1,69 @@
+package com.jackpocket.pulse;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+
+/**
+ * Renders a pulse target into a reusable Bitmap, replacing the deprecated
+ * drawing cache.
+ * <br><br>
+ * The Bitmap is only reallocated when the target's size changes. The target is
+ * re-rendered into it on every capture, as a View's pending invalidations do not
+ * reveal content that changed and has already been drawn.
+ * <br><br>
+ * This must only be used from the UI thread.
+ */
+public class PulseTargetSnapshot {
+
+    private final Canvas canvas = new Canvas();
+
+    private Bitmap bitmap;
+
+    /**
+     * @return the rendered target, or null if the target has not been laid out
+     */
+    public Bitmap capture(View target) {
+        int width = target.getWidth();
+        int height = target.getHeight();
+
+        if (width < 1 || height < 1) {
+            release();
+
+            return null;
+        }
+
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            release();
+
+            this.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+
+        canvas.setBitmap(bitmap);
+        canvas.save();
+        canvas.translate(-target.getScrollX(), -target.getScrollY());
+
+        target.draw(canvas);
+
+        canvas.restore();
+        canvas.setBitmap(null);
+
+        return bitmap;
+    }
+
+    /**
+     * Immediately recycle the underlying Bitmap. Any Bitmap previously
+     * returned by {@link #capture(View)} must no longer be drawn.
+     */
+    public void release() {
+        if (bitmap != null) {
+            bitmap.recycle();
+        }
+
+        this.bitmap = null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.jackpocket.pulse;
+
+import android.os.SystemClock;
+
+/**
+ * The default {@link PulseClock}, reading {@link SystemClock#uptimeMillis()}: the
+ * same time base as the frame times supplied by the {@link PulseScheduler}, and
+ * unaffected by changes to the wall clock.
+ */
+public class UptimePulseClock implements PulseClock {
+
+    private static UptimePulseClock instance;
+
+    public static synchronized UptimePulseClock getInstance() {
+        if (instance == null)
+            instance = new UptimePulseClock();
+
+        return instance;
+    }
+
+    protected UptimePulseClock() { }
+
+    @Override
+    public long nowMs() {
+        return SystemClock.uptimeMillis();
+    }
+}
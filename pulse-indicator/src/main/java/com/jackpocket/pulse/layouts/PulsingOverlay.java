@@ -0,0 +1,89 @@
+package com.jackpocket.pulse.layouts;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.jackpocket.pulse.PulseController;
+
+/**
+ * Draws pulses in a {@link PulsingView} added to the {@link android.view.ViewGroupOverlay}
+ * of any existing ViewGroup (API 18+), rather than requiring the content to be wrapped in
+ * one of the Pulsing layouts.
+ * <br><br>
+ * The overlay's View is attached, hidden and detached along with its host, and pulse frames
+ * invalidate only their dirty region of it. On hardware-accelerated windows, the host and its
+ * children keep their recorded display lists and are not redrawn while pulsing. Pulses are
+ * positioned in the host's coordinates, and are drawn above its children.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+public class PulsingOverlay implements PulseLayout {
+
+    private final ViewGroup host;
+    private final PulsingView pulsingView;
+
+    private final View.OnLayoutChangeListener layoutListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View view, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            pulsingView.layout(0, 0, right - left, bottom - top);
+        }
+    };
+
+    /**
+     * @param host the non-null ViewGroup whose overlay the pulses are drawn into (e.g. the Activity's content root)
+     */
+    public PulsingOverlay(ViewGroup host) {
+        if (host == null)
+            throw new RuntimeException("ViewGroup supplied to PulsingOverlay() cannot be null!");
+
+        this.host = host;
+        this.pulsingView = new PulsingView(host.getContext());
+
+        // Views in an overlay are never measured or laid out by their host
+        pulsingView.layout(0, 0, host.getWidth(), host.getHeight());
+
+        host.getOverlay()
+                .add(pulsingView);
+
+        host.addOnLayoutChangeListener(layoutListener);
+    }
+
+    @Override
+    public PulseController attachTo(Activity activity, View view) {
+        return pulsingView.attachTo(activity, view);
+    }
+
+    @Override
+    public PulseController getPulseController() {
+        return pulsingView.getPulseController();
+    }
+
+    /**
+     * Replace the controller drawn into the overlay, e.g. with a {@link com.jackpocket.pulse.MultiPulseController}
+     * constructed with {@link #getPulsingView()} as its parent. The current controller is stopped.
+     */
+    public void setPulseController(PulseController pulseController) {
+        pulsingView.setPulseController(pulseController);
+    }
+
+    /**
+     * @return the View added to the host's overlay, which parents the overlay's controller
+     */
+    public PulsingView getPulsingView() {
+        return pulsingView;
+    }
+
+    /**
+     * Stop pulsing and remove the overlay from its host. This instance cannot be reused afterwards.
+     */
+    public void release() {
+        pulsingView.getPulseController()
+                .stopPulsing();
+
+        host.removeOnLayoutChangeListener(layoutListener);
+        host.getOverlay()
+                .remove(pulsingView);
+    }
+}
@@ -38,6 +38,30 @@ public class PulsingRelativeLayout extends RelativeLayout implements PulseLayout
         pulseController.draw(canvas);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        pulseController.resume(PulseController.PAUSE_REASON_DETACHED);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        pulseController.pause(PulseController.PAUSE_REASON_DETACHED);
+
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        if (visibility == View.VISIBLE)
+            pulseController.resume(PulseController.PAUSE_REASON_HIDDEN);
+        else
+            pulseController.pause(PulseController.PAUSE_REASON_HIDDEN);
+    }
+
     @Override
     public PulseController attachTo(Activity activity, View view){
         return pulseController.attachTo(activity, view);
@@ -48,4 +72,15 @@ public class PulsingRelativeLayout extends RelativeLayout implements PulseLayout
         return pulseController;
     }
 
+    /**
+     * Replace the controller drawn by this layout, e.g. with a {@link com.jackpocket.pulse.MultiPulseController}
+     * constructed with this layout as its parent. The current controller is stopped.
+     */
+    public void setPulseController(PulseController pulseController) {
+        this.pulseController.stopPulsing();
+        this.pulseController = pulseController;
+
+        invalidate();
+    }
+
 }
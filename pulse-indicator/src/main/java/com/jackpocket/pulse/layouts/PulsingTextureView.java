@@ -0,0 +1,248 @@
+package com.jackpocket.pulse.layouts;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.AttributeSet;
+import android.view.TextureView;
+import android.view.View;
+
+import com.jackpocket.pulse.PulseController;
+import com.jackpocket.pulse.PulseScheduler;
+
+/**
+ * A transparent {@link TextureView} (API 14+, hardware-accelerated windows only) whose
+ * {@link PulseController} is updated and drawn on a dedicated render thread, directly
+ * into the locked surface Canvas. The UI thread is not involved in any frame.
+ * <br><br>
+ * Like the {@link PulsingView}, it should be placed in a ViewGroup allowing overlapping
+ * children, covering the region the pulses are drawn in.
+ * <br><br>
+ * {@link #attachTo(Activity, View)} must still be called on the UI thread, where the
+ * target's boundaries and snapshot are resolved. The render thread waits on the
+ * controller's lock while they are handed off, so a frame never draws partially
+ * updated target state. Completion and budget listeners are triggered on the main thread.
+ */
+@TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+public class PulsingTextureView extends TextureView implements PulseLayout {
+
+    private final RenderThreadPulseController pulseController = new RenderThreadPulseController(this);
+
+    private HandlerThread renderThread;
+    private Handler renderHandler;
+
+    private final Object surfaceLock = new Object();
+    private boolean surfaceAvailable = false;
+    private boolean renderPending = false;
+
+    private final Runnable renderRunnable = new Runnable() {
+        @Override
+        public void run() {
+            render();
+        }
+    };
+
+    private final SurfaceTextureListener surfaceTextureListener = new SurfaceTextureListener() {
+        @Override
+        public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+            synchronized (surfaceLock) {
+                surfaceAvailable = true;
+            }
+
+            requestRender();
+        }
+
+        @Override
+        public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+            requestRender();
+        }
+
+        @Override
+        public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+            // Blocks until any frame being drawn into the surface has been posted
+            synchronized (surfaceLock) {
+                surfaceAvailable = false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public void onSurfaceTextureUpdated(SurfaceTexture surface) { }
+    };
+
+    public PulsingTextureView(Context context) {
+        super(context);
+        init();
+    }
+
+    public PulsingTextureView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public PulsingTextureView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        setOpaque(false);
+        setSurfaceTextureListener(surfaceTextureListener);
+
+        // Frames are only ticked once the render thread exists
+        pulseController.pause(PulseController.PAUSE_REASON_DETACHED);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        startRenderThread();
+
+        pulseController.resume(PulseController.PAUSE_REASON_DETACHED);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        pulseController.pause(PulseController.PAUSE_REASON_DETACHED);
+
+        stopRenderThread();
+
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        if (visibility == View.VISIBLE)
+            pulseController.resume(PulseController.PAUSE_REASON_HIDDEN);
+        else
+            pulseController.pause(PulseController.PAUSE_REASON_HIDDEN);
+    }
+
+    protected void startRenderThread() {
+        if (renderThread != null)
+            return;
+
+        HandlerThread thread = new HandlerThread("PulseRenderThread");
+        thread.start();
+
+        synchronized (surfaceLock) {
+            this.renderThread = thread;
+            this.renderHandler = new Handler(thread.getLooper());
+            this.renderPending = false;
+        }
+
+        pulseController.setScheduler(new PulseScheduler(thread.getLooper()));
+    }
+
+    protected void stopRenderThread() {
+        HandlerThread thread;
+
+        synchronized (surfaceLock) {
+            thread = this.renderThread;
+
+            this.renderThread = null;
+            this.renderHandler = null;
+        }
+
+        if (thread == null)
+            return;
+
+        pulseController.setScheduler(null);
+
+        thread.quit();
+    }
+
+    /**
+     * Draw the most recent frame on the render thread, coalescing requests
+     * made before the previous one was drawn.
+     */
+    protected void requestRender() {
+        synchronized (surfaceLock) {
+            if (renderPending || renderHandler == null)
+                return;
+
+            this.renderPending = true;
+
+            renderHandler.post(renderRunnable);
+        }
+    }
+
+    protected void render() {
+        synchronized (surfaceLock) {
+            this.renderPending = false;
+
+            if (!surfaceAvailable)
+                return;
+
+            Canvas canvas = lockCanvas();
+
+            if (canvas == null)
+                return;
+
+            try {
+                canvas.drawColor(0, PorterDuff.Mode.CLEAR);
+
+                pulseController.draw(canvas);
+            }
+            finally {
+                unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+
+    @Override
+    public PulseController attachTo(Activity activity, View view) {
+        return pulseController.attachTo(activity, view);
+    }
+
+    @Override
+    public PulseController getPulseController() {
+        return pulseController;
+    }
+
+    /**
+     * A {@link PulseController} drawn on the render thread. Drawing holds the controller's
+     * lock, which the UI thread also holds while replacing the Pulse or the target snapshot.
+     */
+    protected class RenderThreadPulseController extends PulseController {
+
+        public RenderThreadPulseController(View parent) {
+            super(parent);
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            synchronized (lock) {
+                super.draw(canvas);
+            }
+        }
+
+        @Override
+        protected void safelyInvalidateParent() {
+            requestRender();
+        }
+
+        /**
+         * The whole surface is redrawn each frame, and the parent's visibility
+         * may not be queried off the UI thread, so every update is rendered.
+         */
+        @Override
+        protected void safelyInvalidateParent(Rect dirty) {
+            if (dirty.isEmpty())
+                return;
+
+            requestRender();
+        }
+    }
+}
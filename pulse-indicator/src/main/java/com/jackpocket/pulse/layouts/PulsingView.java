@@ -37,6 +37,30 @@ public class PulsingView extends View implements PulseLayout {
         pulseController.draw(canvas);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        pulseController.resume(PulseController.PAUSE_REASON_DETACHED);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        pulseController.pause(PulseController.PAUSE_REASON_DETACHED);
+
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        if (visibility == View.VISIBLE)
+            pulseController.resume(PulseController.PAUSE_REASON_HIDDEN);
+        else
+            pulseController.pause(PulseController.PAUSE_REASON_HIDDEN);
+    }
+
     @Override
     public PulseController attachTo(Activity activity, View view){
         return pulseController.attachTo(activity, view);
@@ -47,4 +71,15 @@ public class PulsingView extends View implements PulseLayout {
         return pulseController;
     }
 
+    /**
+     * Replace the controller drawn by this layout, e.g. with a {@link com.jackpocket.pulse.MultiPulseController}
+     * constructed with this layout as its parent. The current controller is stopped.
+     */
+    public void setPulseController(PulseController pulseController) {
+        this.pulseController.stopPulsing();
+        this.pulseController = pulseController;
+
+        invalidate();
+    }
+
 }
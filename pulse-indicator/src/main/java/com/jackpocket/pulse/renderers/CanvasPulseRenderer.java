@@ -0,0 +1,35 @@
+package com.jackpocket.pulse.renderers;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import com.jackpocket.pulse.Pulse;
+import com.jackpocket.pulse.PulseFrame;
+
+/**
+ * A renderer drawing each pulse's Path directly onto the Canvas via {@link Pulse#draw(Canvas, float, Paint)}.
+ * This supports any outline, at the cost of a Canvas transformation and Path rasterization per pulse.
+ */
+public class CanvasPulseRenderer implements PulseRenderer {
+
+    private final Paint paint = new Paint();
+
+    @Override
+    public void draw(Canvas canvas, Pulse pulse, PulseFrame frame) {
+        int color = pulse.getPaint().getColor();
+
+        paint.set(pulse.getPaint());
+
+        for (int i = 0; i < frame.size(); i++) {
+            paint.setColor(frame.getColor(i, color));
+            paint.setAlpha(frame.getAlpha(i));
+
+            pulse.draw(canvas, frame.getScale(i), paint);
+        }
+    }
+
+    @Override
+    public void release() {
+        // Nothing is cached between frames
+    }
+}
@@ -0,0 +1,207 @@
+package com.jackpocket.pulse.renderers;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+
+import com.jackpocket.pulse.Pulse;
+import com.jackpocket.pulse.PulseFrame;
+
+/**
+ * A renderer filling every ring of a circular pulse with a single multi-stop
+ * {@link RadialGradient}, drawn as one circle, instead of stroking a Path per ring.
+ * <br><br>
+ * Each ring contributes four color stops, encoding its scaled stroke, alpha, color and a
+ * one pixel anti-aliased edge on either side. The gradient is only rebuilt when the frame's
+ * rings, or the pulse's center, radius or stroke width, differ from those it was built for,
+ * so a frame drawn more than once (e.g. while the updater is throttled) reuses it.
+ * <br><br>
+ * As a gradient holds a single color per radius, overlapping rings are not blended: the
+ * stops of the outer ring are clamped to begin where the inner ring's end. Rectangular
+ * pulses and custom outlines are drawn with the {@link PrimitivePulseRenderer}.
+ */
+public class GradientPulseRenderer implements PulseRenderer {
+
+    private static final float EDGE_WIDTH_PX = 1f;
+    private static final int STOPS_PER_RING = 4;
+
+    private final PrimitivePulseRenderer fallbackRenderer = new PrimitivePulseRenderer();
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private int[] ringOrder = new int[0];
+
+    private float[] shadedScales = new float[0];
+    private int[] shadedAlphas = new int[0];
+    private int[] shadedColors = new int[0];
+    private int shadedRings = -1;
+    private int shadedCenterX;
+    private int shadedCenterY;
+    private int shadedRadius;
+    private float shadedStrokeWidth;
+    private float outerRadius;
+
+    // Indexed by ring count, as a gradient's stop count is the length of its arrays
+    private int[][] stopColors = new int[0][];
+    private float[][] stopPositions = new float[0][];
+
+    public GradientPulseRenderer() {
+        paint.setStyle(Paint.Style.FILL);
+    }
+
+    @Override
+    public void draw(Canvas canvas, Pulse pulse, PulseFrame frame) {
+        if (!pulse.isCircle() || pulse.hasCustomPath()) {
+            fallbackRenderer.draw(canvas, pulse, frame);
+
+            return;
+        }
+
+        if (frame.size() == 0)
+            return;
+
+        if (isShaderStale(pulse, frame)) {
+            rebuildShader(pulse, frame);
+        }
+
+        canvas.drawCircle(shadedCenterX, shadedCenterY, outerRadius, paint);
+    }
+
+    @Override
+    public void release() {
+        fallbackRenderer.release();
+        paint.setShader(null);
+
+        this.shadedRings = -1;
+        this.stopColors = new int[0][];
+        this.stopPositions = new float[0][];
+    }
+
+    protected boolean isShaderStale(Pulse pulse, PulseFrame frame) {
+        if (shadedRings != frame.size()
+                || shadedCenterX != pulse.getCenterX()
+                || shadedCenterY != pulse.getCenterY()
+                || shadedRadius != pulse.getRadius()
+                || shadedStrokeWidth != pulse.getPaint().getStrokeWidth())
+            return true;
+
+        int color = pulse.getPaint().getColor();
+
+        for (int i = 0; i < shadedRings; i++) {
+            if (shadedScales[i] != frame.getScale(i)
+                    || shadedAlphas[i] != frame.getAlpha(i)
+                    || shadedColors[i] != frame.getColor(i, color))
+                return true;
+        }
+
+        return false;
+    }
+
+    protected void rebuildShader(Pulse pulse, PulseFrame frame) {
+        int rings = frame.size();
+        int color = pulse.getPaint().getColor();
+
+        ensureCapacity(rings);
+
+        this.shadedRings = rings;
+        this.shadedCenterX = pulse.getCenterX();
+        this.shadedCenterY = pulse.getCenterY();
+        this.shadedRadius = pulse.getRadius();
+        this.shadedStrokeWidth = pulse.getPaint().getStrokeWidth();
+        this.outerRadius = 0;
+
+        for (int i = 0; i < rings; i++) {
+            shadedScales[i] = frame.getScale(i);
+            shadedAlphas[i] = frame.getAlpha(i);
+            shadedColors[i] = frame.getColor(i, color);
+            outerRadius = Math.max(outerRadius, getRingOuterRadius(shadedScales[i]) + EDGE_WIDTH_PX);
+        }
+
+        sortRingsByScale(rings);
+
+        int[] colors = stopColors[rings];
+        float[] positions = stopPositions[rings];
+
+        colors[0] = 0;
+        positions[0] = 0f;
+
+        for (int i = 0; i < rings; i++) {
+            int ring = ringOrder[i];
+            int rgb = shadedColors[ring] & 0x00FFFFFF;
+            int ringColor = (shadedAlphas[ring] << 24) | rgb;
+            float scale = shadedScales[ring];
+            float innerRadius = getRingInnerRadius(scale);
+            float ringOuterRadius = getRingOuterRadius(scale);
+            int stop = 1 + (i * STOPS_PER_RING);
+
+            setStop(colors, positions, stop, rgb, innerRadius - EDGE_WIDTH_PX);
+            setStop(colors, positions, stop + 1, ringColor, innerRadius);
+            setStop(colors, positions, stop + 2, ringColor, ringOuterRadius);
+            setStop(colors, positions, stop + 3, rgb, ringOuterRadius + EDGE_WIDTH_PX);
+        }
+
+        colors[colors.length - 1] = 0;
+        positions[positions.length - 1] = 1f;
+
+        paint.setShader(new RadialGradient(shadedCenterX, shadedCenterY, outerRadius, colors, positions, Shader.TileMode.CLAMP));
+    }
+
+    private float getRingInnerRadius(float scale) {
+        return (shadedRadius - (shadedStrokeWidth / 2)) * scale;
+    }
+
+    private float getRingOuterRadius(float scale) {
+        return (shadedRadius + (shadedStrokeWidth / 2)) * scale;
+    }
+
+    /**
+     * Order the ring indices from the innermost to the outermost ring. Rings are usually
+     * published oldest (and largest) first, so this is close to a reversal.
+     */
+    private void sortRingsByScale(int rings) {
+        for (int i = 0; i < rings; i++) {
+            int ring = i;
+            int j = i - 1;
+
+            for (; 0 <= j && shadedScales[ring] < shadedScales[ringOrder[j]]; j--) {
+                ringOrder[j + 1] = ringOrder[j];
+            }
+
+            ringOrder[j + 1] = ring;
+        }
+    }
+
+    private void ensureCapacity(int rings) {
+        if (shadedScales.length < rings) {
+            this.shadedScales = new float[rings];
+            this.shadedAlphas = new int[rings];
+            this.shadedColors = new int[rings];
+            this.ringOrder = new int[rings];
+        }
+
+        if (stopColors.length <= rings) {
+            int[][] colors = new int[rings + 1][];
+            float[][] positions = new float[rings + 1][];
+
+            System.arraycopy(stopColors, 0, colors, 0, stopColors.length);
+            System.arraycopy(stopPositions, 0, positions, 0, stopPositions.length);
+
+            this.stopColors = colors;
+            this.stopPositions = positions;
+        }
+
+        if (stopColors[rings] == null) {
+            stopColors[rings] = new int[(rings * STOPS_PER_RING) + 2];
+            stopPositions[rings] = new float[(rings * STOPS_PER_RING) + 2];
+        }
+    }
+
+    /**
+     * Set a stop at the supplied radius, clamped so that stop positions never decrease.
+     */
+    private void setStop(int[] colors, float[] positions, int stop, int color, float radius) {
+        colors[stop] = color;
+        positions[stop] = Math.max(positions[stop - 1], Math.max(0f, Math.min(1f, radius / outerRadius)));
+    }
+}
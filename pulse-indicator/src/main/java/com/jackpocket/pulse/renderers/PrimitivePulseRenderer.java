@@ -0,0 +1,75 @@
+package com.jackpocket.pulse.renderers;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import com.jackpocket.pulse.Pulse;
+import com.jackpocket.pulse.PulseFrame;
+
+/**
+ * The default renderer, drawing circular pulses with {@link Canvas#drawCircle(float, float, float, Paint)}
+ * and rectangular pulses with {@link Canvas#drawRoundRect(RectF, float, float, Paint)}, sized directly
+ * from each pulse's precomputed radius and half extents.
+ * <br><br>
+ * Unlike drawing the pulse's Path, this requires no Canvas transformation and no
+ * {@link android.graphics.PathEffect}, so both shapes stay on the Canvas' primitive fast paths.
+ * Pulses with a custom outline are drawn with the {@link CanvasPulseRenderer}.
+ */
+public class PrimitivePulseRenderer implements PulseRenderer {
+
+    private final CanvasPulseRenderer fallbackRenderer = new CanvasPulseRenderer();
+
+    private final Paint paint = new Paint();
+    private final RectF bounds = new RectF();
+
+    public PrimitivePulseRenderer() {
+        paint.setAntiAlias(true);
+        paint.setDither(true);
+        paint.setStyle(Paint.Style.STROKE);
+    }
+
+    @Override
+    public void draw(Canvas canvas, Pulse pulse, PulseFrame frame) {
+        if (pulse.hasCustomPath()) {
+            fallbackRenderer.draw(canvas, pulse, frame);
+
+            return;
+        }
+
+        Paint pulsePaint = pulse.getPaint();
+        float strokeWidth = pulsePaint.getStrokeWidth();
+        int color = pulsePaint.getColor();
+
+        for (int i = 0; i < frame.size(); i++) {
+            float scale = frame.getScale(i);
+
+            paint.setColor(frame.getColor(i, color));
+            paint.setAlpha(frame.getAlpha(i));
+            paint.setStrokeWidth(strokeWidth * scale);
+
+            if (pulse.isCircle()) {
+                canvas.drawCircle(pulse.getCenterX(), pulse.getCenterY(), pulse.getRadius() * scale, paint);
+
+                continue;
+            }
+
+            float halfWidth = pulse.getHalfWidth() * scale;
+            float halfHeight = pulse.getHalfHeight() * scale;
+            float cornerRadius = pulse.getCornerRadius() * scale;
+
+            bounds.set(
+                    pulse.getCenterX() - halfWidth,
+                    pulse.getCenterY() - halfHeight,
+                    pulse.getCenterX() + halfWidth,
+                    pulse.getCenterY() + halfHeight);
+
+            canvas.drawRoundRect(bounds, cornerRadius, cornerRadius, paint);
+        }
+    }
+
+    @Override
+    public void release() {
+        fallbackRenderer.release();
+    }
+}
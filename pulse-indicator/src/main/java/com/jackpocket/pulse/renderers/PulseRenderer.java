@@ -0,0 +1,25 @@
+package com.jackpocket.pulse.renderers;
+
+import android.graphics.Canvas;
+
+import com.jackpocket.pulse.Pulse;
+import com.jackpocket.pulse.PulseFrame;
+
+public interface PulseRenderer {
+
+    /**
+     * Draw every pulse in the frame, using the supplied Pulse for its shape and Paint.
+     * This is only ever called from the drawing thread.
+     * <br><br>
+     * The Pulse is the snapshot published with the frame ({@link PulseFrame#getPulse()}), and
+     * must not be modified: it may be handed to the drawing thread again with later frames.
+     */
+    public void draw(Canvas canvas, Pulse pulse, PulseFrame frame);
+
+    /**
+     * Release any resources cached between frames. Called by the {@link com.jackpocket.pulse.PulseController}
+     * when it stops pulsing, or the renderer is replaced, while no frame is being drawn. The renderer
+     * may be drawn with again afterwards.
+     */
+    public void release();
+}
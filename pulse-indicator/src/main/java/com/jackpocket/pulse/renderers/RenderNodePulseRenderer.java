@@ -0,0 +1,184 @@
+package com.jackpocket.pulse.renderers;
+
+import android.annotation.TargetApi;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import com.jackpocket.pulse.Pulse;
+import com.jackpocket.pulse.PulseFrame;
+
+/**
+ * A renderer drawing each pulse as its own {@link RenderNode} on hardware-accelerated
+ * Canvases (API 29+), falling back to {@link PrimitivePulseRenderer} everywhere else.
+ * <br><br>
+ * The pulse's shape is recorded into a single display list once per attachment, and
+ * each pulse node only references it. Per frame, only the nodes' scale and alpha
+ * properties are updated, so the pulse's Path is not re-recorded. Frames are still
+ * ticked and drawn on the controller's thread, so this does not keep pulses animating
+ * while that thread is busy. The display lists are discarded when the controller
+ * stops pulsing.
+ * <br><br>
+ * As the shape is recorded once, per-ring {@link com.jackpocket.pulse.PulseTimeline} colors are
+ * not applied, and every pulse is drawn in the pulse's color.
+ */
+public class RenderNodePulseRenderer implements PulseRenderer {
+
+    private final PrimitivePulseRenderer fallbackRenderer = new PrimitivePulseRenderer();
+    private final Paint recordingPaint = new Paint();
+
+    private Object shapeNode;
+    private Object[] pulseNodes = new Object[0];
+
+    private Path recordedPath;
+    private int recordedColor;
+    private float recordedStrokeWidth;
+    private int recordedWidth;
+    private int recordedHeight;
+    private int recordedTranslationX;
+    private int recordedTranslationY;
+
+    @Override
+    public void draw(Canvas canvas, Pulse pulse, PulseFrame frame) {
+        if (!isSupported(canvas)) {
+            fallbackRenderer.draw(canvas, pulse, frame);
+
+            return;
+        }
+
+        drawRenderNodes(canvas, pulse, frame);
+    }
+
+    protected boolean isSupported(Canvas canvas) {
+        return Build.VERSION_CODES.Q <= Build.VERSION.SDK_INT
+                && canvas.isHardwareAccelerated();
+    }
+
+    /**
+     * Discard the recorded display lists. They are recorded again on the next hardware-accelerated draw.
+     */
+    @Override
+    public void release() {
+        fallbackRenderer.release();
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q)
+            return;
+
+        discardRenderNodes();
+    }
+
+    @TargetApi(Build.VERSION_CODES.Q)
+    protected void drawRenderNodes(Canvas canvas, Pulse pulse, PulseFrame frame) {
+        RenderNode shapeNode = obtainShapeNode(canvas, pulse);
+
+        ensurePulseNodes(frame.size(), shapeNode);
+
+        // Movement since recording is applied as a node translation rather than re-recording
+        int offsetX = pulse.getTranslationX() - recordedTranslationX;
+        int offsetY = pulse.getTranslationY() - recordedTranslationY;
+
+        for (int i = 0; i < frame.size(); i++) {
+            RenderNode node = (RenderNode) pulseNodes[i];
+            node.setPosition(0, 0, recordedWidth, recordedHeight);
+            node.setTranslationX(offsetX);
+            node.setTranslationY(offsetY);
+            node.setPivotX(pulse.getCenterX() - offsetX);
+            node.setPivotY(pulse.getCenterY() - offsetY);
+            node.setScaleX(frame.getScale(i));
+            node.setScaleY(frame.getScale(i));
+            node.setAlpha(frame.getAlpha(i) / (float) Pulse.MAX_ALPHA);
+
+            canvas.drawRenderNode(node);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.Q)
+    private RenderNode obtainShapeNode(Canvas canvas, Pulse pulse) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+
+        if (shapeNode != null
+                && recordedPath == pulse.getPath()
+                && recordedColor == getRgb(pulse.getPaint().getColor())
+                && recordedStrokeWidth == pulse.getPaint().getStrokeWidth()
+                && recordedWidth == width
+                && recordedHeight == height)
+            return (RenderNode) shapeNode;
+
+        RenderNode node = shapeNode == null
+                ? new RenderNode("PulseShape")
+                : (RenderNode) shapeNode;
+
+        node.setPosition(0, 0, width, height);
+
+        RecordingCanvas recordingCanvas = node.beginRecording(width, height);
+
+        recordingPaint.set(pulse.getPaint());
+        recordingPaint.setAlpha(Pulse.MAX_ALPHA);
+
+        pulse.draw(recordingCanvas, 1f, recordingPaint);
+
+        node.endRecording();
+
+        this.shapeNode = node;
+        this.recordedPath = pulse.getPath();
+        this.recordedColor = getRgb(pulse.getPaint().getColor());
+        this.recordedStrokeWidth = pulse.getPaint().getStrokeWidth();
+        this.recordedWidth = width;
+        this.recordedHeight = height;
+        this.recordedTranslationX = pulse.getTranslationX();
+        this.recordedTranslationY = pulse.getTranslationY();
+
+        return node;
+    }
+
+    /**
+     * @return the color without its alpha, which is applied per node instead
+     */
+    private static int getRgb(int color) {
+        return color & 0x00FFFFFF;
+    }
+
+    @TargetApi(Build.VERSION_CODES.Q)
+    private void ensurePulseNodes(int count, RenderNode shapeNode) {
+        if (count <= pulseNodes.length)
+            return;
+
+        Object[] nodes = new Object[count];
+
+        System.arraycopy(pulseNodes, 0, nodes, 0, pulseNodes.length);
+
+        for (int i = pulseNodes.length; i < count; i++) {
+            RenderNode node = new RenderNode("Pulse");
+            node.setPosition(0, 0, recordedWidth, recordedHeight);
+
+            RecordingCanvas recordingCanvas = node.beginRecording(recordedWidth, recordedHeight);
+            recordingCanvas.drawRenderNode(shapeNode);
+
+            node.endRecording();
+
+            nodes[i] = node;
+        }
+
+        this.pulseNodes = nodes;
+    }
+
+    @TargetApi(Build.VERSION_CODES.Q)
+    private void discardRenderNodes() {
+        if (shapeNode == null)
+            return;
+
+        ((RenderNode) shapeNode).discardDisplayList();
+
+        for (Object node : pulseNodes) {
+            ((RenderNode) node).discardDisplayList();
+        }
+
+        this.shapeNode = null;
+        this.pulseNodes = new Object[0];
+        this.recordedPath = null;
+    }
+}
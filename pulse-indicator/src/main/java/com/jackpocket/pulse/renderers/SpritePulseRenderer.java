@@ -0,0 +1,183 @@
+package com.jackpocket.pulse.renderers;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import com.jackpocket.pulse.Pulse;
+import com.jackpocket.pulse.PulseFrame;
+
+/**
+ * A renderer rasterizing the pulse's ring once, at the resolution of its maximum scale,
+ * into a cached alpha-only Bitmap. Each pulse is then drawn as that Bitmap scaled down
+ * to its current size, tinted with the pulse color and modulated by its alpha, so no
+ * anti-aliased stroking occurs per frame.
+ * <br><br>
+ * The sprite is only rasterized again when the pulse's stroke, boundaries, shape, corner
+ * radius or maximum scale change; color changes only affect the tint. Sprites are limited to
+ * {@link #MAX_SPRITE_SIZE_PX} on either side, trading resolution for memory beyond that.
+ * The cached Bitmap is recycled via {@link #release()} when the controller stops pulsing.
+ */
+public class SpritePulseRenderer implements PulseRenderer {
+
+    public static final int MAX_SPRITE_SIZE_PX = 2048;
+
+    private final Paint spritePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint rasterPaint = new Paint();
+    private final RectF bounds = new RectF();
+
+    private Bitmap sprite;
+    private float spriteScale;
+    private float spriteHalfWidth;
+    private float spriteHalfHeight;
+
+    private float rasterizedStrokeWidth;
+    private float rasterizedHalfWidth;
+    private float rasterizedHalfHeight;
+    private float rasterizedCornerRadius;
+    private int rasterizedRadius;
+    private boolean rasterizedCircle;
+    private float rasterizedMaxScale;
+    private Path rasterizedPath;
+
+    public SpritePulseRenderer() {
+        rasterPaint.setAntiAlias(true);
+        rasterPaint.setStyle(Paint.Style.STROKE);
+        rasterPaint.setStrokeJoin(Paint.Join.ROUND);
+        rasterPaint.setStrokeCap(Paint.Cap.ROUND);
+        rasterPaint.setColor(Color.WHITE);
+    }
+
+    @Override
+    public void draw(Canvas canvas, Pulse pulse, PulseFrame frame) {
+        if (frame.size() == 0)
+            return;
+
+        if (isSpriteStale(pulse)) {
+            rasterize(pulse);
+        }
+
+        int color = pulse.getPaint().getColor();
+
+        for (int i = 0; i < frame.size(); i++) {
+            float relativeScale = frame.getScale(i) / spriteScale;
+            float halfWidth = spriteHalfWidth * relativeScale;
+            float halfHeight = spriteHalfHeight * relativeScale;
+
+            bounds.set(
+                    pulse.getCenterX() - halfWidth,
+                    pulse.getCenterY() - halfHeight,
+                    pulse.getCenterX() + halfWidth,
+                    pulse.getCenterY() + halfHeight);
+
+            spritePaint.setColor(frame.getColor(i, color));
+            spritePaint.setAlpha(frame.getAlpha(i));
+
+            canvas.drawBitmap(sprite, null, bounds, spritePaint);
+        }
+    }
+
+    protected boolean isSpriteStale(Pulse pulse) {
+        return sprite == null
+                || sprite.isRecycled()
+                || rasterizedStrokeWidth != pulse.getPaint().getStrokeWidth()
+                || rasterizedHalfWidth != pulse.getHalfWidth()
+                || rasterizedHalfHeight != pulse.getHalfHeight()
+                || rasterizedCornerRadius != pulse.getCornerRadius()
+                || rasterizedRadius != pulse.getRadius()
+                || rasterizedCircle != pulse.isCircle()
+                || rasterizedMaxScale != pulse.getMaxScale()
+                || rasterizedPath != (pulse.hasCustomPath() ? pulse.getPath() : null);
+    }
+
+    protected void rasterize(Pulse pulse) {
+        float strokeWidth = pulse.getPaint().getStrokeWidth();
+        float maxScale = Math.max(1, pulse.getMaxScale());
+        float shapeHalfWidth = pulse.isCircle() && !pulse.hasCustomPath() ? pulse.getRadius() : pulse.getHalfWidth();
+        float shapeHalfHeight = pulse.isCircle() && !pulse.hasCustomPath() ? pulse.getRadius() : pulse.getHalfHeight();
+
+        float largestSide = 2 * (Math.max(shapeHalfWidth, shapeHalfHeight) + strokeWidth) * maxScale;
+        float resolution = Math.min(1, MAX_SPRITE_SIZE_PX / Math.max(1, largestSide));
+
+        this.spriteScale = maxScale * resolution;
+        this.spriteHalfWidth = (shapeHalfWidth + strokeWidth) * spriteScale + 1;
+        this.spriteHalfHeight = (shapeHalfHeight + strokeWidth) * spriteScale + 1;
+
+        obtainSprite((int) Math.ceil(spriteHalfWidth * 2), (int) Math.ceil(spriteHalfHeight * 2));
+
+        Canvas spriteCanvas = new Canvas(sprite);
+
+        rasterPaint.setStrokeWidth(strokeWidth * spriteScale);
+
+        drawShape(spriteCanvas, pulse, sprite.getWidth() / 2f, sprite.getHeight() / 2f);
+
+        this.rasterizedStrokeWidth = strokeWidth;
+        this.rasterizedHalfWidth = pulse.getHalfWidth();
+        this.rasterizedHalfHeight = pulse.getHalfHeight();
+        this.rasterizedCornerRadius = pulse.getCornerRadius();
+        this.rasterizedRadius = pulse.getRadius();
+        this.rasterizedCircle = pulse.isCircle();
+        this.rasterizedMaxScale = pulse.getMaxScale();
+        this.rasterizedPath = pulse.hasCustomPath() ? pulse.getPath() : null;
+    }
+
+    protected void drawShape(Canvas spriteCanvas, Pulse pulse, float centerX, float centerY) {
+        if (pulse.hasCustomPath()) {
+            // The Path remains where it was built, regardless of any later translation of the Pulse
+            float pathCenterX = pulse.getCenterX() - pulse.getTranslationX();
+            float pathCenterY = pulse.getCenterY() - pulse.getTranslationY();
+
+            spriteCanvas.save();
+            spriteCanvas.translate(centerX - pathCenterX, centerY - pathCenterY);
+            spriteCanvas.scale(spriteScale, spriteScale, pathCenterX, pathCenterY);
+
+            rasterPaint.setStrokeWidth(pulse.getPaint().getStrokeWidth());
+
+            spriteCanvas.drawPath(pulse.getPath(), rasterPaint);
+            spriteCanvas.restore();
+
+            return;
+        }
+
+        if (pulse.isCircle()) {
+            spriteCanvas.drawCircle(centerX, centerY, pulse.getRadius() * spriteScale, rasterPaint);
+
+            return;
+        }
+
+        float halfWidth = pulse.getHalfWidth() * spriteScale;
+        float halfHeight = pulse.getHalfHeight() * spriteScale;
+        float cornerRadius = pulse.getCornerRadius() * spriteScale;
+
+        bounds.set(centerX - halfWidth, centerY - halfHeight, centerX + halfWidth, centerY + halfHeight);
+
+        spriteCanvas.drawRoundRect(bounds, cornerRadius, cornerRadius, rasterPaint);
+    }
+
+    protected void obtainSprite(int width, int height) {
+        if (sprite != null && !sprite.isRecycled() && sprite.getWidth() == width && sprite.getHeight() == height) {
+            sprite.eraseColor(Color.TRANSPARENT);
+
+            return;
+        }
+
+        release();
+
+        this.sprite = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+    }
+
+    /**
+     * Recycle the cached sprite. It will be rasterized again on the next draw.
+     */
+    @Override
+    public void release() {
+        if (sprite != null && !sprite.isRecycled()) {
+            sprite.recycle();
+        }
+
+        this.sprite = null;
+    }
+}